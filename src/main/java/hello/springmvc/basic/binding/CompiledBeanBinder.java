@@ -0,0 +1,256 @@
+package hello.springmvc.basic.binding;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.WebDataBinder;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 단순 DTO(기본 생성자 + setter) 전용 바인더
+ *
+ * WebDataBinder.bind() 는 요청마다 MutablePropertyValues 를 만들고, BeanWrapper 가 property path 를 파싱한 뒤
+ * 리플렉션으로 setter 를 호출한다. 여기서는 클래스 당 한 번만 introspection 해서
+ * - 생성자 / setter 를 LambdaMetafactory 로 만든 Supplier / BiConsumer 로 바꿔두고
+ * - String, 숫자 타입은 미리 정해둔 변환 함수로 바로 변환한다. (그 외 타입은 binder 의 TypeConverter 에 property 의
+ *   TypeDescriptor 를 넘겨 변환하므로 @DateTimeFormat 같은 애노테이션이 그대로 적용된다)
+ *
+ * 미리 정해둔 변환 함수는 ConversionService 의 기본 변환과 같을 때만 쓸 수 있다. property 에 애노테이션
+ * (@NumberFormat 등)이 있거나 ConversionService 에 같은 타입의 custom converter 가 등록돼 있으면 supports 가 false.
+ *
+ * 변환 실패는 기본 바인더와 같은 방식(BindingErrorProcessor, typeMismatch 코드)으로 BindingResult 에 남긴다.
+ */
+public class CompiledBeanBinder<T> {
+
+    private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+    private static final Method GET_CONVERTER = Objects.requireNonNull(ReflectionUtils.findMethod(
+            GenericConversionService.class, "getConverter", TypeDescriptor.class, TypeDescriptor.class));
+
+    static {
+        ReflectionUtils.makeAccessible(GET_CONVERTER);
+    }
+
+    private final Class<T> beanClass;
+    private final Supplier<T> constructor;
+    private final Map<String, CompiledProperty> properties;
+    private volatile ConversionCheck lastConversionCheck; // 보통 애플리케이션 전체가 ConversionService 하나를 쓴다
+
+    private CompiledBeanBinder(Class<T> beanClass, Supplier<T> constructor, Map<String, CompiledProperty> properties) {
+        this.beanClass = beanClass;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    public static <T> CompiledBeanBinder<T> compile(Class<T> beanClass) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Supplier<T> constructor = compileConstructor(lookup, beanClass);
+            Map<String, CompiledProperty> properties = new HashMap<>();
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(beanClass)) {
+                Method writeMethod = descriptor.getWriteMethod();
+                if (writeMethod == null) {
+                    continue;
+                }
+                Class<?> type = descriptor.getPropertyType();
+                // BeanWrapper 와 같은 TypeDescriptor : field, getter, setter 의 애노테이션을 모두 포함한다
+                TypeDescriptor typeDescriptor = new TypeDescriptor(
+                        new Property(beanClass, descriptor.getReadMethod(), writeMethod, descriptor.getName()));
+                properties.put(descriptor.getName(), new CompiledProperty(descriptor.getName(), type, typeDescriptor,
+                        compileSetter(lookup, beanClass, writeMethod), converterFor(type)));
+            }
+            return new CompiledBeanBinder<>(beanClass, constructor, Collections.unmodifiableMap(properties));
+        } catch (Throwable e) {
+            throw new IllegalStateException("cannot compile binder for " + beanClass.getName(), e);
+        }
+    }
+
+    public Class<T> getBeanClass() {
+        return beanClass;
+    }
+
+    public T newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * 기본 바인더와 결과가 달라질 수 있는 설정(@InitBinder 의 allowed/disallowed/required fields, custom editor)이 있으면 false
+     * 미리 정해둔 변환 함수를 쓰는 property 에 애노테이션이나 custom converter 가 있어도 false
+     */
+    public boolean supports(WebDataBinder binder) {
+        if (!isEmpty(binder.getAllowedFields()) || !isEmpty(binder.getDisallowedFields())
+                || !isEmpty(binder.getRequiredFields())) {
+            return false;
+        }
+        for (CompiledProperty property : properties.values()) {
+            if (binder.findCustomEditor(property.type(), property.name()) != null) {
+                return false;
+            }
+            if (property.converter() != null && property.typeDescriptor().getAnnotations().length > 0) {
+                return false;
+            }
+        }
+        return usesDefaultConverters(binder.getConversionService());
+    }
+
+    /**
+     * 파라미터 중 field marker(_), field default(!), nested path(a.b, a[0]) 처럼 BeanWrapper 가 특별하게 다루는 이름이 있으면 false
+     * BeanWrapper 는 대소문자만 다른 이름(Age -> age)도 property 로 찾으므로 이 경우도 false
+     */
+    public boolean supports(Map<String, String[]> parameters, WebDataBinder binder) {
+        for (String name : parameters.keySet()) {
+            if (name.indexOf('.') >= 0 || name.indexOf('[') >= 0) {
+                return false;
+            }
+            if (!properties.containsKey(name) && (properties.containsKey(StringUtils.uncapitalize(name))
+                    || properties.containsKey(StringUtils.capitalize(name)))) {
+                return false;
+            }
+            if (isPrefixed(name, binder.getFieldMarkerPrefix()) || isPrefixed(name, binder.getFieldDefaultPrefix())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void bind(Map<String, String[]> parameters, WebDataBinder binder) {
+        Object target = binder.getTarget();
+        for (CompiledProperty property : properties.values()) {
+            String[] values = parameters.get(property.name());
+            if (values == null) {
+                continue;
+            }
+            Object rawValue = values.length == 1 ? values[0] : values;
+            Object value;
+            try {
+                value = values.length == 1 && property.converter() != null
+                        ? property.converter().apply(values[0])
+                        : binder.convertIfNecessary(rawValue, property.type(), property.typeDescriptor());
+                if (value == null && property.type().isPrimitive()) {
+                    throw new IllegalArgumentException("A null value cannot be assigned to a primitive type");
+                }
+            } catch (RuntimeException e) {
+                TypeMismatchException mismatch = new TypeMismatchException(
+                        new PropertyChangeEvent(target, property.name(), null, rawValue), property.type(), e);
+                binder.getBindingErrorProcessor().processPropertyAccessException(mismatch, binder.getBindingResult());
+                continue;
+            }
+            property.setter().accept(target, value);
+        }
+    }
+
+    private boolean usesDefaultConverters(ConversionService conversionService) {
+        ConversionCheck check = lastConversionCheck;
+        if (check == null || check.conversionService() != conversionService) {
+            check = new ConversionCheck(conversionService, checkDefaultConverters(conversionService));
+            lastConversionCheck = check;
+        }
+        return check.defaults();
+    }
+
+    /**
+     * String -> property 타입 converter 가 DefaultConversionService 의 것과 같은 종류인지 확인한다.
+     * ConversionService 가 없으면 binder 는 기본 PropertyEditor 로 변환하므로 미리 정해둔 변환 함수와 같다.
+     */
+    private boolean checkDefaultConverters(ConversionService conversionService) {
+        if (conversionService == null) {
+            return true;
+        }
+        if (!(conversionService instanceof GenericConversionService genericConversionService)) {
+            return false;
+        }
+        GenericConversionService defaults = (GenericConversionService) DefaultConversionService.getSharedInstance();
+        for (CompiledProperty property : properties.values()) {
+            if (property.converter() == null) {
+                continue;
+            }
+            GenericConverter converter = getConverter(genericConversionService, property.typeDescriptor());
+            GenericConverter expected = getConverter(defaults, property.typeDescriptor());
+            if (converter == null || expected == null || converter.getClass() != expected.getClass()
+                    || !Objects.equals(converter.getConvertibleTypes(), expected.getConvertibleTypes())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static GenericConverter getConverter(GenericConversionService conversionService, TypeDescriptor targetType) {
+        return (GenericConverter) ReflectionUtils.invokeMethod(GET_CONVERTER, conversionService, STRING_TYPE, targetType);
+    }
+
+    private static boolean isPrefixed(String name, String prefix) {
+        return prefix != null && name.startsWith(prefix);
+    }
+
+    private static boolean isEmpty(String[] values) {
+        return values == null || values.length == 0;
+    }
+
+    // 기본 바인더(WebConversionService)와 같은 규칙 : 빈 문자열 -> null, 앞뒤 공백 무시
+    private static Function<String, Object> converterFor(Class<?> type) {
+        Class<?> boxed = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (boxed == String.class) {
+            return value -> value;
+        }
+        if (boxed == Integer.class || boxed == Long.class || boxed == Short.class
+                || boxed == Byte.class || boxed == Double.class || boxed == Float.class) {
+            @SuppressWarnings("unchecked")
+            Class<? extends Number> numberType = (Class<? extends Number>) boxed;
+            return value -> value.isEmpty() ? null : NumberUtils.parseNumber(value, numberType);
+        }
+        return null; // boolean("on", "yes" ...), enum, 날짜 등은 binder 의 TypeConverter 에 맡긴다
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> compileConstructor(MethodHandles.Lookup lookup, Class<T> beanClass) throws Throwable {
+        MethodHandle handle = lookup.findConstructor(beanClass, MethodType.methodType(void.class));
+        return (Supplier<T>) LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(beanClass))
+                .getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileSetter(MethodHandles.Lookup lookup, Class<?> beanClass,
+                                                            Method writeMethod) throws Throwable {
+        MethodHandle handle = lookup.unreflect(writeMethod);
+        Class<?> parameterType = ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0]);
+        return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, beanClass, parameterType))
+                .getTarget().invoke();
+    }
+
+    private record CompiledProperty(String name, Class<?> type, TypeDescriptor typeDescriptor,
+                                    BiConsumer<Object, Object> setter, Function<String, Object> converter) {
+    }
+
+    private record ConversionCheck(ConversionService conversionService, boolean defaults) {
+    }
+}
@@ -0,0 +1,42 @@
+package hello.springmvc.basic.binding;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * hello.binding.compiled-types 에 지정한 DTO 는 CompiledModelAttributeMethodProcessor 로 바인딩한다.
+ *
+ * WebMvcConfigurer#addArgumentResolvers 로 추가한 resolver 는 기본 @ModelAttribute 프로세서 뒤에 등록되어
+ * @ModelAttribute 가 붙은 파라미터에는 쓰이지 않는다. 그래서 모든 빈이 초기화된 뒤 adapter 의 resolver 목록 맨 앞에 넣는다.
+ */
+@Configuration
+@ConditionalOnExpression("'${hello.binding.compiled-types:}' != ''")
+public class CompiledBindingConfig {
+
+    @Bean
+    public SmartInitializingSingleton compiledModelAttributeInstaller(
+            RequestMappingHandlerAdapter requestMappingHandlerAdapter,
+            @Value("${hello.binding.compiled-types}") String[] compiledTypes) {
+        return () -> {
+            List<Class<?>> beanClasses = Arrays.stream(compiledTypes)
+                    .map(String::trim)
+                    .<Class<?>>map(type -> ClassUtils.resolveClassName(type, ClassUtils.getDefaultClassLoader()))
+                    .toList();
+
+            List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>();
+            resolvers.add(new CompiledModelAttributeMethodProcessor(beanClasses));
+            resolvers.addAll(requestMappingHandlerAdapter.getArgumentResolvers());
+            requestMappingHandlerAdapter.setArgumentResolvers(resolvers);
+        };
+    }
+}
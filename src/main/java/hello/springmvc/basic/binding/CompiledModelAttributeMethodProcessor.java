@@ -0,0 +1,125 @@
+package hello.springmvc.basic.binding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.annotation.ValidationAnnotationUtils;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.ModelFactory;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ServletModelAttributeMethodProcessor;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * @ModelAttribute HelloData (생략 포함) 를 CompiledBeanBinder 로 바인딩하는 ArgumentResolver
+ *
+ * ServletModelAttributeMethodProcessor 와 같은 순서로 동작한다.
+ * binder 생성(@InitBinder 적용) -> 바인딩 -> @Validated/@Valid 검증 -> 오류가 있으면 MethodArgumentNotValidException
+ * (다음 파라미터가 BindingResult 면 예외 대신 전달) -> model 에 target / BindingResult 추가
+ *
+ * 아래 경우에는 기본 프로세서에 그대로 맡긴다.
+ * - model 에 같은 이름의 attribute 가 이미 있는 경우 (@SessionAttributes, @ModelAttribute 메서드)
+ * - multipart 요청, URI 템플릿 변수가 있는 요청
+ * - @InitBinder 로 allowed/disallowed fields, custom editor 를 설정한 경우
+ * - String, 숫자 property 에 애노테이션(@NumberFormat 등)이 있거나 같은 타입의 custom converter 가 등록된 경우
+ * - 파라미터 이름에 field marker(_), nested path(a.b) 가 있는 경우
+ */
+public class CompiledModelAttributeMethodProcessor implements HandlerMethodArgumentResolver {
+
+    private final Map<Class<?>, CompiledBeanBinder<?>> binders;
+    private final HandlerMethodArgumentResolver fallback = new ServletModelAttributeMethodProcessor(false);
+
+    public CompiledModelAttributeMethodProcessor(Collection<Class<?>> beanClasses) {
+        this.binders = beanClasses.stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), CompiledBeanBinder::compile));
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!binders.containsKey(parameter.getParameterType())) {
+            return false;
+        }
+        // @ModelAttribute 가 있거나, 아무 애노테이션 없이 단순 타입이 아닌 경우 (@RequestBody 등은 제외)
+        return parameter.hasParameterAnnotation(ModelAttribute.class)
+                || (parameter.getParameterAnnotations().length == 0
+                && !BeanUtils.isSimpleProperty(parameter.getParameterType()));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        String name = ModelFactory.getNameForParameter(parameter);
+        ModelAttribute ann = parameter.getParameterAnnotation(ModelAttribute.class);
+        if (ann != null) {
+            mavContainer.setBinding(name, ann.binding());
+        }
+
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (mavContainer.containsAttribute(name) || request == null || !isPlainRequest(request)) {
+            return fallback.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        }
+
+        CompiledBeanBinder<?> compiled = binders.get(parameter.getParameterType());
+        WebDataBinder binder = binderFactory.createBinder(webRequest, compiled.newInstance(), name);
+        Map<String, String[]> parameters = request.getParameterMap();
+        if (!compiled.supports(binder) || !compiled.supports(parameters, binder)) {
+            return fallback.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        }
+
+        if (!mavContainer.isBindingDisabled(name)) {
+            compiled.bind(parameters, binder);
+        }
+        validateIfApplicable(binder, parameter);
+        BindingResult bindingResult = binder.getBindingResult();
+        if (bindingResult.hasErrors() && isBindExceptionRequired(parameter)) {
+            throw new MethodArgumentNotValidException(parameter, bindingResult);
+        }
+
+        Map<String, Object> bindingResultModel = bindingResult.getModel();
+        mavContainer.removeAttributes(bindingResultModel);
+        mavContainer.addAllAttributes(bindingResultModel);
+        return bindingResult.getTarget();
+    }
+
+    private static boolean isPlainRequest(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return false;
+        }
+        Map<?, ?> uriVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return uriVariables == null || uriVariables.isEmpty();
+    }
+
+    // ModelAttributeMethodProcessor#validateIfApplicable 와 동일
+    private static void validateIfApplicable(WebDataBinder binder, MethodParameter parameter) {
+        for (Annotation ann : parameter.getParameterAnnotations()) {
+            Object[] validationHints = ValidationAnnotationUtils.determineValidationHints(ann);
+            if (validationHints != null) {
+                binder.validate(validationHints);
+                break;
+            }
+        }
+    }
+
+    // ModelAttributeMethodProcessor#isBindExceptionRequired 와 동일
+    private static boolean isBindExceptionRequired(MethodParameter parameter) {
+        int i = parameter.getParameterIndex();
+        Class<?>[] paramTypes = parameter.getExecutable().getParameterTypes();
+        boolean hasBindingResult = (paramTypes.length > (i + 1) && Errors.class.isAssignableFrom(paramTypes[i + 1]));
+        return !hasBindingResult;
+    }
+}
@@ -0,0 +1,68 @@
+package hello.springmvc.basic.header;
+
+import hello.springmvc.basic.warmup.WarmupRequests;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * AcceptHeaderLocaleResolver 는 request.getLocale() 을 쓰고, 서블릿 컨테이너는 요청마다 Accept-Language 를 새로 파싱한다.
+ * supportedLocales 가 없는 기본 설정에서는 결과가 "q 값이 가장 높은 첫 locale" 이므로 헤더 원문별로 캐시한다.
+ * 컨테이너처럼 Accept-Language 헤더가 여러 개면 ',' 로 이어 붙인 하나의 값으로 본다.
+ * (supportedLocales 를 지정했거나, 파싱할 수 없거나 첫 언어가 '*' 인 헤더는 기존 로직 사용)
+ */
+public class CachingAcceptHeaderLocaleResolver extends AcceptHeaderLocaleResolver {
+
+    private final ParsedHeaderCache<Optional<Locale>> acceptLanguageCache;
+
+    public CachingAcceptHeaderLocaleResolver(ParsedHeaderCache<Optional<Locale>> acceptLanguageCache) {
+        this.acceptLanguageCache = acceptLanguageCache;
+    }
+
+    @Override
+    public Locale resolveLocale(HttpServletRequest request) {
+        String header = acceptLanguage(request);
+        if (header == null || !getSupportedLocales().isEmpty()) {
+            return super.resolveLocale(request);
+        }
+        Optional<Locale> locale = WarmupRequests.isWarmup(request)
+                ? acceptLanguageCache.parse(header)
+                : acceptLanguageCache.get(header);
+        return locale.orElseGet(() -> super.resolveLocale(request));
+    }
+
+    private static String acceptLanguage(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_LANGUAGE);
+        if (values == null || !values.hasMoreElements()) {
+            return null;
+        }
+        String first = values.nextElement();
+        if (!values.hasMoreElements()) {
+            return first;
+        }
+        StringBuilder joined = new StringBuilder(first);
+        while (values.hasMoreElements()) {
+            joined.append(',').append(values.nextElement());
+        }
+        return joined.toString();
+    }
+
+    // 빈 값이면 request.getLocale() 에 맡긴다 (q=0 만 있거나, 첫 언어가 '*' 라서 컨테이너마다 결과가 다를 수 있는 경우 포함)
+    public static Optional<Locale> parseAcceptLanguage(String raw) {
+        try {
+            List<Locale.LanguageRange> ranges = Locale.LanguageRange.parse(raw); // q 값 내림차순, 같은 q 는 헤더 순서
+            return ranges.stream()
+                    .filter(range -> range.getWeight() > 0)
+                    .findFirst()
+                    .filter(range -> range.getRange().indexOf('*') < 0)
+                    .map(range -> Locale.forLanguageTag(range.getRange()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package hello.springmvc.basic.header;
+
+import hello.springmvc.basic.warmup.WarmupRequests;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.List;
+
+/**
+ * HeaderContentNegotiationStrategy 와 같은 결과를 내되, Accept 헤더 원문별로 파싱/정렬된 MediaType 목록을 재사용한다.
+ * 캐시된 목록은 여러 요청이 공유하므로 변경할 수 없는 List 로 반환한다.
+ */
+public class CachingHeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
+
+    private final ParsedHeaderCache<List<MediaType>> acceptCache;
+
+    public CachingHeaderContentNegotiationStrategy(ParsedHeaderCache<List<MediaType>> acceptCache) {
+        this.acceptCache = acceptCache;
+    }
+
+    @Override
+    public List<MediaType> resolveMediaTypes(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        String[] headerValues = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (headerValues == null) {
+            return MEDIA_TYPE_ALL_LIST;
+        }
+        String raw = headerValues.length == 1 ? headerValues[0] : String.join(",", headerValues);
+        try {
+            return isWarmup(request) ? acceptCache.parse(raw) : acceptCache.get(raw);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException ex) {
+            throw new HttpMediaTypeNotAcceptableException(
+                    "Could not parse 'Accept' header [" + raw + "]: " + ex.getMessage());
+        }
+    }
+
+    private static boolean isWarmup(NativeWebRequest request) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        return servletRequest != null && WarmupRequests.isWarmup(servletRequest);
+    }
+
+    public static List<MediaType> parseAccept(String raw) {
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(raw);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        return mediaTypes.isEmpty() ? MEDIA_TYPE_ALL_LIST : List.copyOf(mediaTypes);
+    }
+}
@@ -0,0 +1,78 @@
+package hello.springmvc.basic.header;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Accept(컨텐츠 협상, produces 매핑) / Accept-Language(Locale 파라미터) 파싱 결과 캐시
+ * 적중률 : GET /header-cache/stats
+ */
+@Configuration
+public class HeaderCacheConfig {
+
+    @Bean
+    public ParsedHeaderCache<List<MediaType>> acceptHeaderCache(@Value("${hello.header-cache.capacity:64}") int capacity) {
+        return new ParsedHeaderCache<>(capacity, CachingHeaderContentNegotiationStrategy::parseAccept);
+    }
+
+    @Bean
+    public ParsedHeaderCache<Optional<Locale>> acceptLanguageHeaderCache(@Value("${hello.header-cache.capacity:64}") int capacity) {
+        return new ParsedHeaderCache<>(capacity, CachingAcceptHeaderLocaleResolver::parseAcceptLanguage);
+    }
+
+    /**
+     * 스프링 부트가 만든 ContentNegotiationManager(spring.mvc.contentnegotiation.* 의 parameter 전략, media-types 포함)에서
+     * HeaderContentNegotiationStrategy 만 캐시 버전으로 바꾼다. 나머지 전략과 순서는 그대로 둔다.
+     */
+    @Bean
+    public static BeanPostProcessor cachingHeaderContentNegotiationPostProcessor(
+            ObjectProvider<ParsedHeaderCache<List<MediaType>>> acceptHeaderCache) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ContentNegotiationManager manager)
+                        || manager.getStrategies().stream().noneMatch(HeaderCacheConfig::isHeaderStrategy)) {
+                    return bean;
+                }
+                List<ContentNegotiationStrategy> strategies = manager.getStrategies().stream()
+                        .map(strategy -> isHeaderStrategy(strategy)
+                                ? new CachingHeaderContentNegotiationStrategy(acceptHeaderCache.getObject())
+                                : strategy)
+                        .toList();
+                return new ContentNegotiationManager(strategies);
+            }
+        };
+    }
+
+    // 스프링 부트 기본 localeResolver 대신 등록 : spring.web.locale, spring.web.locale-resolver(fixed | accept-header) 는 그대로 적용
+    @Bean(name = DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME)
+    public LocaleResolver localeResolver(WebProperties webProperties,
+                                         ParsedHeaderCache<Optional<Locale>> acceptLanguageHeaderCache) {
+        if (webProperties.getLocaleResolver() == WebProperties.LocaleResolver.FIXED) {
+            return new FixedLocaleResolver(webProperties.getLocale());
+        }
+        CachingAcceptHeaderLocaleResolver localeResolver = new CachingAcceptHeaderLocaleResolver(acceptLanguageHeaderCache);
+        localeResolver.setDefaultLocale(webProperties.getLocale());
+        return localeResolver;
+    }
+
+    // 사용자가 직접 만든 하위 클래스는 바꾸지 않는다
+    private static boolean isHeaderStrategy(ContentNegotiationStrategy strategy) {
+        return strategy.getClass() == HeaderContentNegotiationStrategy.class;
+    }
+}
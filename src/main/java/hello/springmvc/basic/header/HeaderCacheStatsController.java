@@ -0,0 +1,31 @@
+package hello.springmvc.basic.header;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * request : GET /header-cache/stats -> {"accept":{...}, "accept-language":{...}}
+ */
+@RestController
+@RequiredArgsConstructor
+public class HeaderCacheStatsController {
+
+    private final ParsedHeaderCache<List<MediaType>> acceptHeaderCache;
+    private final ParsedHeaderCache<Optional<Locale>> acceptLanguageHeaderCache;
+
+    @GetMapping("/header-cache/stats")
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("accept", acceptHeaderCache.stats());
+        stats.put("accept-language", acceptLanguageHeaderCache.stats());
+        return stats;
+    }
+}
@@ -0,0 +1,54 @@
+package hello.springmvc.basic.header;
+
+import org.springframework.util.ConcurrentLruCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 헤더 원문(raw string) -> 파싱 결과 캐시
+ *
+ * 실제 트래픽의 Accept, Accept-Language 값은 수십 가지 정도라서, 같은 문자열을 매 요청 다시 파싱할 필요가 없다.
+ * 크기는 capacity 로 제한되고(LRU), 파싱 중 예외가 나면 캐시하지 않는다.
+ * warm-up 요청은 parse 로 바로 파싱해서 캐시 내용과 적중률 통계에 섞이지 않게 한다.
+ */
+public class ParsedHeaderCache<T> {
+
+    private final Function<String, T> parser;
+    private final ConcurrentLruCache<String, T> cache;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ParsedHeaderCache(int capacity, Function<String, T> parser) {
+        this.parser = parser;
+        this.cache = new ConcurrentLruCache<>(capacity, raw -> {
+            misses.increment();
+            return parser.apply(raw);
+        });
+    }
+
+    public T get(String raw) {
+        lookups.increment();
+        return cache.get(raw);
+    }
+
+    // 캐시와 통계를 거치지 않는다
+    public T parse(String raw) {
+        return parser.apply(raw);
+    }
+
+    public Map<String, Object> stats() {
+        long lookupCount = lookups.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("capacity", cache.capacity());
+        stats.put("lookup", lookupCount);
+        stats.put("hit", lookupCount - missCount);
+        stats.put("miss", missCount);
+        stats.put("hitRatio", lookupCount == 0 ? 0.0 : (double) (lookupCount - missCount) / lookupCount);
+        return stats;
+    }
+}
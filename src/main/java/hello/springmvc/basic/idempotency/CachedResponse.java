@@ -0,0 +1,10 @@
+package hello.springmvc.basic.idempotency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 첫 요청의 응답 스냅샷 (status, header, content-type, body bytes)
+ */
+public record CachedResponse(int status, Map<String, List<String>> headers, String contentType, byte[] body) {
+}
@@ -0,0 +1,147 @@
+package hello.springmvc.basic.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Idempotency-Key 별 응답 캐시 (크기 제한 + TTL)
+ *
+ * - acquire 로 처음 들어온 요청이 entry 의 owner 가 되고, 처리 후 complete 로 응답을 채운다.
+ * - 같은 key 로 동시에 들어온 요청은 owner 의 future 를 기다린다(wait). 이미 완료된 entry 면 바로 재사용(hit).
+ * - owner 가 실패하면(null 로 complete) entry 를 지우고, 기다리던 요청은 다시 acquire 해서 직접 처리한다.
+ * - TTL 은 응답이 완료된 시점부터 센다. 처리 중인 entry 는 만료/용량 초과로 지우지 않는다.
+ */
+public class IdempotencyCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger(); // ConcurrentLinkedQueue.size() 는 O(n)
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyCache(int maxEntries, long ttl, TimeUnit unit) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    public Acquired acquire(String key) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry created = new Entry(key);
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                misses.increment();
+                enqueue(created);
+                evictIfNecessary(now);
+                return new Acquired(created, true);
+            }
+            if (existing.isExpired(now)) {
+                if (entries.remove(key, existing)) {
+                    evictions.increment();
+                }
+                continue;
+            }
+            if (existing.future.isDone()) {
+                hits.increment();
+            } else {
+                waits.increment();
+            }
+            return new Acquired(existing, false);
+        }
+    }
+
+    /**
+     * owner 가 처리 결과를 기록한다. response 가 null 이면 캐시하지 않고 entry 를 지운다.
+     */
+    public void complete(Entry entry, CachedResponse response) {
+        if (response == null) {
+            entries.remove(entry.key, entry);
+        } else {
+            entry.expiresAt = System.nanoTime() + ttlNanos;
+        }
+        entry.future.complete(response);
+    }
+
+    private void evictIfNecessary(long now) {
+        int scanned = 0;
+        int limit = insertionOrderSize.get();
+        Entry oldest;
+        while (scanned++ < limit && (oldest = insertionOrder.peek()) != null) {
+            boolean removable = oldest.isExpired(now) || entries.size() > maxEntries;
+            if (!removable) {
+                break;
+            }
+            if (!insertionOrder.remove(oldest)) { // 다른 스레드가 먼저 꺼냄
+                continue;
+            }
+            insertionOrderSize.decrementAndGet();
+            if (!oldest.future.isDone()) { // 처리 중 -> 뒤로 보낸다
+                enqueue(oldest);
+                continue;
+            }
+            if (entries.remove(oldest.key, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        insertionOrder.add(entry);
+        insertionOrderSize.incrementAndGet();
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) entries.size());
+        stats.put("hit", hits.sum());
+        stats.put("wait", waits.sum());
+        stats.put("miss", misses.sum());
+        stats.put("evict", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * owner 가 true 면 호출한 요청이 직접 처리하고 complete 해야 한다.
+     */
+    public record Acquired(Entry entry, boolean owner) {
+    }
+
+    public static final class Entry {
+        private final String key;
+        private final CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+
+        /**
+         * owner 의 응답을 기다린다. owner 가 실패했으면 null.
+         */
+        public CachedResponse await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            try {
+                return future.get(timeout, unit);
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package hello.springmvc.basic.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyCache idempotencyCache(@Value("${hello.idempotency.max-entries:10000}") int maxEntries,
+                                             @Value("${hello.idempotency.ttl-seconds:600}") long ttlSeconds) {
+        return new IdempotencyCache(maxEntries, ttlSeconds, TimeUnit.SECONDS);
+    }
+}
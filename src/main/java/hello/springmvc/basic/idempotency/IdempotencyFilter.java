@@ -0,0 +1,167 @@
+package hello.springmvc.basic.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 헤더가 있는 POST 요청의 첫 응답을 저장해두고, 같은 key 의 재시도에는 저장된 응답을 그대로 돌려준다.
+ * 게이트웨이 재시도로 POST /mapping/users, POST /request-body-json-v5 가 두 번 처리되는 것을 막는다.
+ *
+ * - 동시에 들어온 중복 요청은 첫 요청이 끝날 때까지 기다린 뒤 같은 응답을 받는다.
+ * - 5xx, 비동기 처리, max-body-bytes 를 넘는 응답은 저장하지 않는다. (다음 재시도는 다시 처리된다)
+ * - sendError 로 만든 응답(400/415 등 DefaultHandlerExceptionResolver)도 저장하지 않는다.
+ *   바디는 필터 체인이 끝난 뒤 별도의 error dispatch 에서 렌더링되므로 여기서는 빈 바디만 보인다.
+ *   같은 이유로 바디가 비어 있는 4xx 도 저장하지 않는다.
+ * - 재생된 응답에는 Idempotent-Replayed: true 헤더가 붙는다.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyCache idempotencyCache;
+    private final List<String> paths;
+    private final long waitTimeoutMillis;
+    private final int maxBodyBytes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyCache idempotencyCache,
+                             @Value("${hello.idempotency.paths:/mapping/users,/request-body-json-v5}") List<String> paths,
+                             @Value("${hello.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis,
+                             @Value("${hello.idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        this.idempotencyCache = idempotencyCache;
+        this.paths = paths;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        while (true) {
+            IdempotencyCache.Acquired acquired = idempotencyCache.acquire(key);
+            if (acquired.owner()) {
+                execute(request, response, filterChain, acquired.entry());
+                return;
+            }
+
+            CachedResponse cached;
+            try {
+                cached = acquired.entry().await(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.sendError(HttpStatus.CONFLICT.value(), "request with the same Idempotency-Key is in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+            if (cached != null) {
+                replay(cached, response);
+                return;
+            }
+            // 첫 요청이 실패함 -> 다시 owner 가 되어 직접 처리
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain, IdempotencyCache.Entry entry) throws ServletException, IOException {
+        ErrorTrackingResponseWrapper responseWrapper = new ErrorTrackingResponseWrapper(response);
+        CachedResponse cached = null;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (isCacheable(request, responseWrapper)) {
+                cached = snapshot(responseWrapper);
+            }
+        } finally {
+            idempotencyCache.complete(entry, cached);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean isCacheable(HttpServletRequest request, ErrorTrackingResponseWrapper response) {
+        if (response.errorSent || request.isAsyncStarted()) {
+            return false;
+        }
+        int status = response.getStatus();
+        if (status >= 500 || (status >= 400 && response.getContentSize() == 0)) {
+            return false;
+        }
+        return response.getContentSize() <= maxBodyBytes;
+    }
+
+    private static CachedResponse snapshot(ContentCachingResponseWrapper response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) || HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                continue;
+            }
+            headers.put(name, new ArrayList<>(response.getHeaders(name)));
+        }
+        return new CachedResponse(response.getStatus(), headers, response.getContentType(), response.getContentAsByteArray());
+    }
+
+    private static void replay(CachedResponse cached, HttpServletResponse response) throws IOException {
+        response.setStatus(cached.status());
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    /**
+     * sendError 호출 여부를 기록한다. (에러 바디는 이 필터 밖의 error dispatch 에서 만들어진다)
+     */
+    private static final class ErrorTrackingResponseWrapper extends ContentCachingResponseWrapper {
+        private boolean errorSent;
+
+        private ErrorTrackingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            errorSent = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            errorSent = true;
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package hello.springmvc.basic.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * request : GET /idempotency/stats -> {"size":..,"hit":..,"wait":..,"miss":..,"evict":..}
+ */
+@RestController
+@RequiredArgsConstructor
+public class IdempotencyStatsController {
+
+    private final IdempotencyCache idempotencyCache;
+
+    @GetMapping("/idempotency/stats")
+    public Map<String, Long> stats() {
+        return idempotencyCache.stats();
+    }
+}
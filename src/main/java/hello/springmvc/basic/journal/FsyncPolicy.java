@@ -0,0 +1,14 @@
+package hello.springmvc.basic.journal;
+
+/**
+ * 저널의 디스크 동기화(fsync) 정책
+ *
+ * ALWAYS   : 배치(group commit) 마다 force 후 응답 -> OS 장애에도 유실 없음
+ * INTERVAL : fsync-interval-ms 마다 한 번 force -> 구간 내 기록은 OS 장애 시 유실 가능
+ * NEVER    : force 하지 않음, page cache 에 맡긴다 (프로세스 장애에는 안전)
+ */
+public enum FsyncPolicy {
+    ALWAYS,
+    INTERVAL,
+    NEVER
+}
@@ -0,0 +1,376 @@
+package hello.springmvc.basic.journal;
+
+import hello.springmvc.basic.HelloData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * HelloData 를 append-only 로 기록하는 memory-mapped 저널
+ *
+ * 레코드 형식 : [int length][int crc32][payload]
+ * payload    : [int usernameLength(-1 이면 null)][username UTF-8][int age]
+ *
+ * - 여러 요청 스레드의 append 는 queue 에 쌓이고, 단일 writer 스레드가 한 번에 꺼내서(group commit)
+ *   기록한 뒤 FsyncPolicy 에 따라 force 한다.
+ * - 파일은 regionSize 단위로 map 하며, 남은 공간이 부족하면 현재 위치부터 다시 map 한다.
+ *   새로 늘어난 영역은 0 으로 채워지므로 length == 0 을 기록의 끝으로 본다.
+ * - replay 는 반드시 start 전에 호출한다. 잘린 레코드나 crc 가 맞지 않는 레코드에서 멈추고, 이후 기록은 그 위치부터 이어진다.
+ * - append 는 appendTimeoutMillis 까지만 기다린다. close 이후나 writer 스레드가 죽은 뒤의 append 는 바로 실패한다.
+ * - force 가 한 번이라도 실패하면 저널은 실패 상태가 된다. (실패 후 다시 fsync 하면 dirty page 가 이미 버려져
+ *   성공한 것처럼 보일 수 있으므로 재시도하지 않는다) 해당 배치는 실패로 응답하고 writer 는 멈춘다.
+ */
+@Slf4j
+public class HelloDataJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_MARKER = 0;
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long pollTimeoutMillis;
+    private final int regionSize;
+    private final int maxBatchSize;
+    private final long appendTimeoutMillis;
+
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final CRC32 writeCrc = new CRC32();
+    private final Object lifecycleLock = new Object(); // enqueue 와 close 가 엇갈려 future 가 버려지지 않도록
+    private Thread writer;
+    private volatile boolean running;
+
+    // writer 스레드 전용 상태 (writePosition 은 모니터링용으로 다른 스레드에서도 읽는다)
+    private MappedByteBuffer region;
+    private volatile long writePosition;
+    private boolean dirty;
+    private long lastForceNanos = System.nanoTime();
+    private volatile RuntimeException forceFailure;
+
+    public HelloDataJournal(Path file, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+                            int regionSize, int maxBatchSize, long appendTimeoutMillis) throws IOException {
+        if (regionSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("regionSize must be greater than " + HEADER_SIZE);
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.pollTimeoutMillis = Math.max(1, fsyncIntervalMillis);
+        this.regionSize = regionSize;
+        this.maxBatchSize = maxBatchSize;
+        this.appendTimeoutMillis = appendTimeoutMillis;
+    }
+
+    /**
+     * 저널을 처음부터 순차적으로 읽어 consumer 에 전달하고, 읽은 레코드 수를 반환한다.
+     */
+    public long replay(Consumer<HelloData> consumer) throws IOException {
+        if (running) {
+            throw new IllegalStateException("replay must be called before start");
+        }
+        long size = channel.size();
+        long position = 0;
+        long count = 0;
+        CRC32 crc = new CRC32();
+
+        while (position + HEADER_SIZE <= size) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(regionSize, size - position));
+            int consumed = 0;
+            boolean end = false;
+
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                if (length == END_MARKER) {
+                    end = true;
+                    break;
+                }
+                if (length < 0 || length > regionSize - HEADER_SIZE || position + start + HEADER_SIZE + length > size) {
+                    log.warn("journal truncated at offset={} (invalid length={})", position + start, length);
+                    end = true;
+                    break;
+                }
+                int checksum = buffer.getInt();
+                if (buffer.remaining() < length) { // region 경계에 걸친 레코드 -> 레코드 시작부터 다시 map
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("journal truncated at offset={} (crc mismatch)", position + start);
+                    end = true;
+                    break;
+                }
+                consumer.accept(decode(payload.rewind()));
+                buffer.position(buffer.position() + length);
+                consumed = buffer.position();
+                count++;
+            }
+
+            position += consumed;
+            if (end || consumed == 0) {
+                break;
+            }
+        }
+
+        writePosition = position;
+        return count;
+    }
+
+    public void start() {
+        synchronized (lifecycleLock) {
+            if (running || writer != null) {
+                return;
+            }
+            running = true;
+            writer = new Thread(this::writeLoop, "hello-data-journal-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * 기록을 요청하고, writer 스레드가 배치를 기록(ALWAYS 면 force 까지)하면 완료되는 future 를 반환한다.
+     */
+    public CompletableFuture<Void> appendAsync(HelloData helloData) {
+        byte[] payload = encode(helloData);
+        if (payload.length > regionSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("record is larger than journal region: " + payload.length);
+        }
+        PendingAppend pending = new PendingAppend(payload, new CompletableFuture<>());
+        synchronized (lifecycleLock) {
+            if (!running) {
+                throw new IllegalStateException("journal is not running");
+            }
+            queue.add(pending);
+        }
+        return pending.future;
+    }
+
+    public void append(HelloData helloData) throws IOException {
+        try {
+            appendAsync(helloData).get(appendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("journal append failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("journal append timed out after " + appendTimeoutMillis + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for journal append", e);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingAppend first = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, maxBatchSize - 1);
+                    }
+                    if (!writeBatch(batch)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // 정상 종료든 Error 로 죽었든, 이후 append 는 바로 실패하고 남은 요청도 기다리지 않게 한다
+            stop();
+            failPending(new IOException("journal writer stopped", forceFailure));
+        }
+    }
+
+    private void stop() {
+        synchronized (lifecycleLock) {
+            running = false;
+        }
+    }
+
+    /**
+     * 배치를 기록하고 응답한다. 저널을 더 쓸 수 없으면(force 실패) false
+     */
+    private boolean writeBatch(List<PendingAppend> batch) {
+        int written = 0;
+        try {
+            for (PendingAppend pending : batch) {
+                write(pending.payload);
+                written++;
+            }
+            if (!batch.isEmpty() && region.remaining() >= Integer.BYTES) {
+                region.putInt(region.position(), END_MARKER); // 이전에 잘린 레코드가 남아 있어도 replay 가 여기서 멈추도록
+            }
+            if (shouldForce(!batch.isEmpty())) {
+                force();
+            }
+        } catch (Throwable e) {
+            log.error("journal write failed, written={}, batchSize={}", written, batch.size(), e);
+            boolean failed = forceFailure != null || e instanceof Error;
+            if (failed) {
+                stop(); // 응답보다 먼저 멈춰야 실패를 받은 호출자의 다음 append 가 바로 실패한다
+            }
+            // INTERVAL / NEVER : 이미 기록된 레코드는 replay 에 포함되므로 성공으로 처리한다 (실패로 알리면 재시도 시 중복 기록)
+            // ALWAYS : force 로 확인되지 않은 레코드는 성공으로 응답하지 않는다
+            int acknowledged = fsyncPolicy == FsyncPolicy.ALWAYS || forceFailure != null ? 0 : written;
+            for (int i = acknowledged; i < batch.size(); i++) {
+                batch.get(i).future.completeExceptionally(e);
+            }
+            completeAll(batch.subList(0, acknowledged));
+            if (e instanceof Error error) {
+                throw error;
+            }
+            return !failed;
+        }
+        completeAll(batch);
+        return true;
+    }
+
+    private static void completeAll(List<PendingAppend> written) {
+        for (PendingAppend pending : written) {
+            pending.future.complete(null);
+        }
+    }
+
+    private void failPending(IOException cause) {
+        PendingAppend pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    private void write(byte[] payload) throws IOException {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (region == null || region.remaining() < recordSize) {
+            remap();
+        }
+        writeCrc.reset();
+        writeCrc.update(payload);
+        region.putInt(payload.length)
+                .putInt((int) writeCrc.getValue())
+                .put(payload);
+        writePosition += recordSize;
+        dirty = true;
+    }
+
+    private void remap() throws IOException {
+        if (region != null && dirty && fsyncPolicy != FsyncPolicy.NEVER) {
+            force();
+        }
+        region = channel.map(FileChannel.MapMode.READ_WRITE, writePosition, regionSize);
+    }
+
+    private boolean shouldForce(boolean written) {
+        return switch (fsyncPolicy) {
+            case ALWAYS -> written;
+            case INTERVAL -> dirty && System.nanoTime() - lastForceNanos >= fsyncIntervalNanos;
+            case NEVER -> false;
+        };
+    }
+
+    private void force() {
+        if (forceFailure != null) {
+            throw forceFailure;
+        }
+        if (region != null) {
+            try {
+                forceRegion(region);
+            } catch (RuntimeException e) { // UncheckedIOException
+                forceFailure = e;
+                throw e;
+            }
+        }
+        dirty = false;
+        lastForceNanos = System.nanoTime();
+    }
+
+    // 테스트에서 force 실패를 재현하기 위한 확장 지점
+    void forceRegion(MappedByteBuffer region) {
+        region.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread writerThread;
+        synchronized (lifecycleLock) {
+            running = false; // 이 시점 이후로는 queue 에 새로 들어오지 않는다
+            writerThread = writer;
+        }
+        if (writerThread != null) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        failPending(new IOException("journal closed"));
+        if (region != null && dirty && fsyncPolicy != FsyncPolicy.NEVER && forceFailure == null) {
+            force();
+        }
+        channel.close();
+    }
+
+    public long getWritePosition() {
+        return writePosition;
+    }
+
+    static byte[] encode(HelloData helloData) {
+        byte[] username = helloData.getUsername() == null
+                ? null : helloData.getUsername().getBytes(StandardCharsets.UTF_8);
+        int usernameLength = username == null ? 0 : username.length;
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 2 + usernameLength);
+        buffer.putInt(username == null ? -1 : username.length);
+        if (username != null) {
+            buffer.put(username);
+        }
+        buffer.putInt(helloData.getAge());
+        return buffer.array();
+    }
+
+    static HelloData decode(ByteBuffer payload) {
+        HelloData helloData = new HelloData();
+        int usernameLength = payload.getInt();
+        if (usernameLength >= 0) {
+            byte[] username = new byte[usernameLength];
+            payload.get(username);
+            helloData.setUsername(new String(username, StandardCharsets.UTF_8));
+        }
+        helloData.setAge(payload.getInt());
+        return helloData;
+    }
+
+    private record PendingAppend(byte[] payload, CompletableFuture<Void> future) {
+    }
+}
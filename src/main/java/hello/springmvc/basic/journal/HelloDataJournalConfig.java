@@ -0,0 +1,39 @@
+package hello.springmvc.basic.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * hello.journal.enabled=true 일 때만 저널을 연다.
+ * 빈 생성 시점(컨텍스트 refresh 중)에 replay 가 끝나므로, readiness 는 메모리 상태가 복구된 뒤에 보고된다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "hello.journal.enabled", havingValue = "true")
+public class HelloDataJournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public HelloDataJournal helloDataJournal(HelloDataStore helloDataStore,
+                                             @Value("${hello.journal.path}") Path path,
+                                             @Value("${hello.journal.fsync:INTERVAL}") FsyncPolicy fsync,
+                                             @Value("${hello.journal.fsync-interval-ms:10}") long fsyncIntervalMillis,
+                                             @Value("${hello.journal.region-size:67108864}") int regionSize,
+                                             @Value("${hello.journal.max-batch-size:1024}") int maxBatchSize,
+                                             @Value("${hello.journal.append-timeout-ms:5000}") long appendTimeoutMillis) throws IOException {
+        HelloDataJournal journal = new HelloDataJournal(path, fsync, fsyncIntervalMillis, regionSize, maxBatchSize, appendTimeoutMillis);
+
+        long start = System.nanoTime();
+        long count = journal.replay(helloDataStore::save);
+        log.info("journal replayed path={}, records={}, bytes={}, elapsed={}ms",
+                path, count, journal.getWritePosition(), (System.nanoTime() - start) / 1_000_000);
+
+        journal.start();
+        return journal;
+    }
+}
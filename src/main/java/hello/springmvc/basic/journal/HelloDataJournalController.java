@@ -0,0 +1,40 @@
+package hello.springmvc.basic.journal;
+
+import hello.springmvc.basic.HelloData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 저널에 먼저 기록한 뒤 메모리 저장소에 반영한다.
+ * request : POST /journal/hello-data  {"username":"hello", "age":20}
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hello.journal.enabled", havingValue = "true")
+@RequestMapping("/journal/hello-data")
+public class HelloDataJournalController {
+
+    private final HelloDataJournal helloDataJournal;
+    private final HelloDataStore helloDataStore;
+
+    @PostMapping
+    public String ingest(@RequestBody HelloData helloData) throws IOException {
+        helloDataJournal.append(helloData);
+        helloDataStore.save(helloData);
+        return "ok";
+    }
+
+    @GetMapping("/count")
+    public long count() {
+        return helloDataStore.size();
+    }
+}
@@ -0,0 +1,28 @@
+package hello.springmvc.basic.journal;
+
+import hello.springmvc.basic.HelloData;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 수집된 HelloData 를 보관하는 메모리 저장소
+ * 재시작 시에는 HelloDataJournal 의 replay 로 다시 채워진다.
+ */
+@Component
+public class HelloDataStore {
+
+    private final Queue<HelloData> store = new ConcurrentLinkedQueue<>();
+    private final AtomicLong size = new AtomicLong();
+
+    public void save(HelloData helloData) {
+        store.add(helloData);
+        size.incrementAndGet();
+    }
+
+    public long size() {
+        return size.get();
+    }
+}
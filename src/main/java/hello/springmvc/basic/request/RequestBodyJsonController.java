@@ -3,9 +3,11 @@ package hello.springmvc.basic.request;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.springmvc.basic.HelloData;
+import hello.springmvc.basic.requestlog.RequestLogger;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.stereotype.Controller;
@@ -19,9 +21,11 @@ import java.nio.charset.StandardCharsets;
 
 @Controller
 @Slf4j
+@RequiredArgsConstructor
 public class RequestBodyJsonController {
 
     private ObjectMapper objectMapper = new ObjectMapper();
+    private final RequestLogger requestLog;
 
     @PostMapping("/request-body-json-v1")
     public void requestBodyJsonV1(HttpServletRequest request, HttpServletResponse response) throws IOException {
@@ -29,7 +33,7 @@ public class RequestBodyJsonController {
         String messageBody = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
 
         HelloData helloData = objectMapper.readValue(messageBody, HelloData.class);
-        log.info("helloData={}", helloData);
+        requestLog.info(getClass(), "helloData={}", helloData);
 
         response.getWriter().write("ok");
     }
@@ -39,7 +43,7 @@ public class RequestBodyJsonController {
     public String requestBodyJsonV2(@RequestBody String messageBody) throws JsonProcessingException {
 
         HelloData helloData = objectMapper.readValue(messageBody, HelloData.class);
-        log.info("v2 helloData={}", helloData);
+        requestLog.info(getClass(), "v2 helloData={}", helloData);
 
         return "ok";
     }
@@ -53,7 +57,7 @@ public class RequestBodyJsonController {
     @ResponseBody
     @PostMapping("/request-body-json-v3")
     public String requestBodyJsonV3(@RequestBody HelloData helloData) {
-        log.info("v3 helloData={}",helloData);
+        requestLog.info(getClass(), "v3 helloData={}", helloData);
         return "ok";
     }
 
@@ -72,7 +76,7 @@ public class RequestBodyJsonController {
     public HttpEntity<String> requestBodyJsonV4(HttpEntity<HelloData> httpEntity) {
 
         HelloData body = httpEntity.getBody();
-        log.info("v4 helloData={}", body);
+        requestLog.info(getClass(), "v4 helloData={}", body);
 
         return new HttpEntity<>("ok");
     }
@@ -99,7 +103,7 @@ public class RequestBodyJsonController {
     @ResponseBody
     @PostMapping("/request-body-json-v5")
     public HelloData requestBodyJsonV5(@RequestBody HelloData helloData) {
-        log.info("v5 helloData={}",helloData);
+        requestLog.info(getClass(), "v5 helloData={}", helloData);
         return helloData;
     }
 }
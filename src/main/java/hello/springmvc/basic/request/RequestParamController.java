@@ -1,8 +1,10 @@
 package hello.springmvc.basic.request;
 
 import hello.springmvc.basic.HelloData;
+import hello.springmvc.basic.requestlog.RequestLogger;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.MultiValueMap;
@@ -16,17 +18,22 @@ import java.util.Map;
 
 /**
  * hello-form.html 에서 입력값 입력 후 post로 요청
+ *
+ * 요청마다 파라미터를 남기는 로그는 RequestLogger 로 남긴다. (route 별 샘플링 / rate limit, 바이너리 파일)
  */
 
 @Slf4j
 @Controller
+@RequiredArgsConstructor
 public class RequestParamController {
 
+    private final RequestLogger requestLog;
+
     @RequestMapping("/request-param-v1")
     public void requestParamV1(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String username = request.getParameter("username");
         int age = Integer.parseInt(request.getParameter("age"));
-//        log.info("username={}, age={}", username, age);
+        requestLog.info(getClass(), "username={}, age={}", username, age);
 
         response.getWriter().write("ok");
     }
@@ -39,7 +46,7 @@ public class RequestParamController {
             @RequestParam("username") String memberName,
             @RequestParam("age") int memberAge
     ) {
-//        log.info("username={}, age={}", memberName, memberAge);
+        requestLog.info(getClass(), "username={}, age={}", memberName, memberAge);
         return "ok";
     }
 
@@ -49,7 +56,7 @@ public class RequestParamController {
             @RequestParam String username,
             @RequestParam int age
     ) {
-//        log.info("username={}, age={}", username, age);
+        requestLog.info(getClass(), "username={}, age={}", username, age);
         return "ok";
     }
 
@@ -60,7 +67,7 @@ public class RequestParamController {
             String username,
             int age
     ) {
-//        log.info("username={}, age={}", username, age);
+        requestLog.info(getClass(), "username={}, age={}", username, age);
         return "ok";
     }
 
@@ -69,7 +76,7 @@ public class RequestParamController {
     public String requestParamRequired(
             @RequestParam(required = true) String username, // GET /request-param-required?username= 으로 request 시 OK, null 이 아닌 ""
             @RequestParam(required = false) Integer age) { // null 이 들어갈 수 없어 Integer 로(500 err) 하거나, defaultValue 설정
-//        log.info("username={}, age={}", username, age);
+        requestLog.info(getClass(), "username={}, age={}", username, age);
         return "ok";
     }
 
@@ -79,7 +86,7 @@ public class RequestParamController {
     public String requestParamDefault(
             @RequestParam(defaultValue = "guest") String username,
             @RequestParam(defaultValue = "-1") int age) {
-//        log.info("username={}, age={}", username, age);
+        requestLog.info(getClass(), "username={}, age={}", username, age);
         return "ok";
     }
 
@@ -91,7 +98,7 @@ public class RequestParamController {
     public String requestParamMap(
             @RequestParam Map<String, Object> paramMap) {
 
-        log.info("username={}, age={}", paramMap.get("username"), paramMap.get("age"));
+        requestLog.info(getClass(), "username={}, age={}", paramMap.get("username"), paramMap.get("age"));
         return "ok";
     }
 
@@ -102,7 +109,7 @@ public class RequestParamController {
     public String requestParamMultiValueMap(
             @RequestParam MultiValueMap<String, Object> paramMap) {
 
-        log.info("multi : username={}, age={}", paramMap.get("username"), paramMap.get("age"));
+        requestLog.info(getClass(), "multi : username={}, age={}", paramMap.get("username"), paramMap.get("age"));
         // multi : username=[hello, hello2], age=[20]
         return "ok";
     }
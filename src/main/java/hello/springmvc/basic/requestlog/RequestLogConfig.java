@@ -0,0 +1,15 @@
+package hello.springmvc.basic.requestlog;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RequestLogProperties.class)
+public class RequestLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public RequestLogger requestLogger(RequestLogProperties requestLogProperties) {
+        return new RequestLogger(requestLogProperties);
+    }
+}
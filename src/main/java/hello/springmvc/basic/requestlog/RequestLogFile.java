@@ -0,0 +1,134 @@
+package hello.springmvc.basic.requestlog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RequestLogger writer 스레드 전용 파일 핸들 (RequestLogFormat)
+ *
+ * - 열 때 이전 프로세스가 남긴 잘린 레코드를 잘라내고 이어 쓴다. 다른 형식/버전의 파일은 .1 로 옮긴다.
+ * - 파일을 열 때마다 SESSION 레코드를 쓰고 문자열 사전을 새로 시작한다.
+ * - flush 시점에 max-file-size 를 넘었으면(이미 넘은 파일을 열었으면 다음 기록 후) 현재 파일을 .1 로 옮기고(기존 .1 은 덮어씀) 새 파일을 연다.
+ *
+ * 레코드는 beginRecord -> 내용 -> endRecord 로 쓴다. intern 도 레코드를 쓰므로 beginRecord 전에 호출한다.
+ */
+@Slf4j
+final class RequestLogFile implements Closeable {
+
+    private final Path path;
+    private final Path rotatedPath;
+    private final long maxFileSize;
+
+    private final Map<String, Long> dictionary = new HashMap<>();
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+    private DataOutputStream out;
+    private long size;
+    private long sessionStart; // SESSION 레코드 직후 위치 (아무것도 쓰지 않은 파일은 rotate 하지 않는다)
+
+    RequestLogFile(Path path, long maxFileSize) throws IOException {
+        this.path = path;
+        this.rotatedPath = path.resolveSibling(path.getFileName() + ".1");
+        this.maxFileSize = maxFileSize;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        open(recover());
+    }
+
+    // 마지막 완전한 레코드 뒤는 이전 프로세스가 쓰다 만 것이므로 잘라낸다
+    private long recover() throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long fileSize = Files.size(path);
+        long complete = RequestLogFormat.completeLength(path);
+        if (complete < 0) {
+            log.warn("request log {} has an unknown format, moved to {}", path, rotatedPath);
+            Files.move(path, rotatedPath, StandardCopyOption.REPLACE_EXISTING);
+            return 0;
+        }
+        if (complete < fileSize) {
+            log.warn("request log {} has a partial record at the end, truncated {} -> {} bytes", path, fileSize, complete);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+        return complete;
+    }
+
+    private void open(long existing) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024));
+        size = existing;
+        if (existing == 0) {
+            out.write(RequestLogFormat.MAGIC);
+            out.writeByte(RequestLogFormat.VERSION);
+            size = RequestLogFormat.HEADER_LENGTH;
+        }
+        dictionary.clear();
+        beginRecord(RequestLogFormat.SESSION).writeLong(System.currentTimeMillis());
+        endRecord();
+        sessionStart = size;
+    }
+
+    /**
+     * 문자열 사전 id. 처음 보는 문자열이면 STRING 레코드를 쓴다.
+     */
+    long intern(String value) throws IOException {
+        Long id = dictionary.get(value);
+        if (id != null) {
+            return id;
+        }
+        long newId = dictionary.size();
+        dictionary.put(value, newId);
+        DataOutputStream string = beginRecord(RequestLogFormat.STRING);
+        RequestLogFormat.writeVarLong(string, newId);
+        string.writeUTF(RequestLogFormat.truncate(value));
+        endRecord();
+        return newId;
+    }
+
+    DataOutputStream beginRecord(byte tag) throws IOException {
+        recordBuffer.reset();
+        record.writeByte(tag);
+        return record;
+    }
+
+    void endRecord() throws IOException {
+        int length = recordBuffer.size();
+        RequestLogFormat.writeVarLong(out, length);
+        recordBuffer.writeTo(out);
+        size += RequestLogFormat.varLongSize(length) + length;
+    }
+
+    /**
+     * 배치 경계에서만 호출한다. (rotate 하면 사전이 바뀌므로 레코드 사이에서만 안전하다)
+     */
+    void flush() throws IOException {
+        out.flush();
+        if (size >= maxFileSize && size > sessionStart) {
+            out.close();
+            Files.move(path, rotatedPath, StandardCopyOption.REPLACE_EXISTING);
+            log.info("request log rotated, {} bytes moved to {}", size, rotatedPath);
+            open(0);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
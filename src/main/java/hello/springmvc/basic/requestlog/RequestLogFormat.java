@@ -0,0 +1,132 @@
+package hello.springmvc.basic.requestlog;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 요청 로그 바이너리 형식
+ *
+ * 파일 : MAGIC(4) VERSION(1) 다음에 레코드가 이어진다.
+ * 레코드 : varint length 다음에 length byte 의 [tag, 내용].
+ *         프로세스가 레코드 중간에 죽어도 writer 는 마지막 완전한 레코드까지 잘라내고 이어 쓰며,
+ *         reader 는 모르는 tag 나 깨진 레코드를 length 만큼 건너뛴다.
+ * - SESSION  : tag, long epochMillis                     -> 문자열 사전 초기화 (writer 가 새로 열릴 때마다)
+ * - STRING   : tag, varint id, UTF                       -> 사전 등록 (logger, route, message, thread 이름)
+ * - EVENT    : tag, long epochMillis, varint thread/logger/route/message id, varint argCount, args...
+ * - SUPPRESS : tag, long epochMillis, varint logger/route id, varint sampledOut, rateLimited, dropped (직전 보고 이후 증가분)
+ *
+ * 인자 : ARG_* tag 다음에 값. 그 외 객체는 writer 스레드에서 toString 한 결과를 UTF 로 남긴다.
+ */
+final class RequestLogFormat {
+
+    static final byte[] MAGIC = {'H', 'R', 'L', 'G'};
+    static final byte VERSION = 2;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+
+    static final byte SESSION = 'S';
+    static final byte STRING = 'D';
+    static final byte EVENT = 'E';
+    static final byte SUPPRESS = 'X';
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_INT = 1;
+    static final byte ARG_LONG = 2;
+    static final byte ARG_BOOLEAN = 3;
+    static final byte ARG_DOUBLE = 4;
+    static final byte ARG_STRING = 5;
+
+    // writeUTF 는 인코딩 결과가 65535 byte 이하여야 한다 (문자당 최대 3 byte)
+    static final int MAX_STRING_LENGTH = 65535 / 3;
+
+    private RequestLogFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        return readVarLong(in, in.readUnsignedByte());
+    }
+
+    // 첫 byte 를 이미 읽은 경우 (레코드 경계에서 EOF 인지 확인한 뒤)
+    static long readVarLong(DataInput in, int firstByte) throws IOException {
+        long value = firstByte & 0x7F;
+        int b = firstByte;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift >= 64) {
+                throw new IOException("malformed varint");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * 헤더부터 마지막으로 온전히 기록된 레코드까지의 길이. 헤더까지도 다 기록되지 않았으면 0, 다른 형식/버전이면 -1
+     */
+    static long completeLength(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size < HEADER_LENGTH) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+                return -1;
+            }
+            long position = HEADER_LENGTH;
+            while (true) {
+                int first = in.read();
+                if (first < 0) {
+                    return position;
+                }
+                long length;
+                try {
+                    length = readVarLong(in, first);
+                } catch (IOException e) { // EOF 포함
+                    return position;
+                }
+                long end = position + varLongSize(length) + length;
+                if (length <= 0 || end > size) {
+                    return position;
+                }
+                in.skipNBytes(length);
+                position = end;
+            }
+        }
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static String truncate(String value) {
+        return value.length() > MAX_STRING_LENGTH ? value.substring(0, MAX_STRING_LENGTH) : value;
+    }
+}
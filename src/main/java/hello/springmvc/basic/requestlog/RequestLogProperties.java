@@ -0,0 +1,51 @@
+package hello.springmvc.basic.requestlog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * hello.request-log.*
+ *
+ * 규칙 적용 순서 : routes[경로] -> loggers[클래스 simple name] -> 기본값(sample-rate, rate-per-second, burst)
+ * ex) hello.request-log.routes[/request-param-map].sample-rate=0.1
+ *     hello.request-log.loggers.RequestBodyJsonController.rate-per-second=50
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hello.request-log")
+public class RequestLogProperties {
+
+    /**
+     * false 면 바이너리 파일 대신 slf4j 로 남긴다. (샘플링 / rate limit 은 그대로 적용)
+     */
+    private boolean enabled = true;
+    private Path file = Path.of("data/request-log.bin");
+    /**
+     * 넘으면 file 을 file.1 로 옮기고 새로 시작한다. (디스크 사용량은 최대 약 2배)
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+    private int queueCapacity = 65536;
+    private Duration reportInterval = Duration.ofSeconds(60);
+
+    private double sampleRate = 1.0;
+    private double ratePerSecond = 100;
+    private int burst = 200;
+
+    private Map<String, Rule> routes = new LinkedHashMap<>();
+    private Map<String, Rule> loggers = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private Double sampleRate;
+        private Double ratePerSecond;
+        private Integer burst;
+    }
+}
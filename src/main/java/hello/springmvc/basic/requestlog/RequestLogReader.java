@@ -0,0 +1,147 @@
+package hello.springmvc.basic.requestlog;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RequestLogger 가 남긴 바이너리 로그를 텍스트로 출력하는 도구
+ *
+ * 실행 : java -cp build/libs/springmvc-0.0.1-SNAPSHOT.jar -Dloader.main=hello.springmvc.basic.requestlog.RequestLogReader \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher data/request-log.bin
+ *
+ * 2024-07-31T16:21:48.817 [http-nio-8080-exec-5] hello.springmvc.basic.request.RequestParamController /request-param-map : username=hello, age=20
+ *
+ * 모르는 tag 나 해석할 수 없는 레코드는 표시만 하고 다음 레코드로 넘어간다. 마지막 레코드가 잘려 있으면 거기서 끝낸다.
+ */
+public class RequestLogReader {
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: RequestLogReader <request-log file>");
+            System.exit(1);
+        }
+        read(Path.of(args[0]), System.out);
+    }
+
+    public static void read(Path file, PrintStream out) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            byte[] magic = new byte[RequestLogFormat.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, RequestLogFormat.MAGIC)) {
+                throw new IOException("not a request log file: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != RequestLogFormat.VERSION) {
+                throw new IOException("unsupported request log version: " + version);
+            }
+
+            List<String> dictionary = new ArrayList<>();
+            while (true) {
+                byte[] record;
+                try {
+                    record = readRecord(in);
+                } catch (EOFException e) {
+                    out.println("---- truncated record at end of file");
+                    return;
+                }
+                if (record == null) {
+                    return;
+                }
+                DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(record));
+                byte tag = recordIn.readByte();
+                try {
+                    switch (tag) {
+                        case RequestLogFormat.SESSION -> {
+                            dictionary.clear();
+                            out.println("---- session " + TIME_FORMAT.format(Instant.ofEpochMilli(recordIn.readLong())));
+                        }
+                        case RequestLogFormat.STRING -> {
+                            int id = (int) RequestLogFormat.readVarLong(recordIn);
+                            String value = recordIn.readUTF();
+                            if (id != dictionary.size()) {
+                                throw new IOException("unexpected string id " + id);
+                            }
+                            dictionary.add(value);
+                        }
+                        case RequestLogFormat.EVENT -> out.println(readEvent(recordIn, dictionary));
+                        case RequestLogFormat.SUPPRESS -> out.println(readSuppress(recordIn, dictionary));
+                        default -> out.println("---- skipped record with unknown tag " + tag);
+                    }
+                } catch (IOException | IndexOutOfBoundsException e) {
+                    out.println("---- skipped malformed record (tag " + tag + "): " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 파일 끝이면 null, length 나 내용이 다 기록되지 않았으면 EOFException
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        long length = RequestLogFormat.readVarLong(in, first);
+        if (length <= 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("malformed record length " + length);
+        }
+        byte[] record = in.readNBytes((int) length);
+        if (record.length < length) {
+            throw new EOFException();
+        }
+        return record;
+    }
+
+    private static String readEvent(DataInputStream in, List<String> dictionary) throws IOException {
+        long timeMillis = in.readLong();
+        String thread = dictionary.get((int) RequestLogFormat.readVarLong(in));
+        String logger = dictionary.get((int) RequestLogFormat.readVarLong(in));
+        String route = dictionary.get((int) RequestLogFormat.readVarLong(in));
+        String message = dictionary.get((int) RequestLogFormat.readVarLong(in));
+        Object[] args = new Object[(int) RequestLogFormat.readVarLong(in)];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = readArg(in);
+        }
+        return TIME_FORMAT.format(Instant.ofEpochMilli(timeMillis)) + " [" + thread + "] " + logger + " " + route
+                + " : " + MessageFormatter.arrayFormat(message, args).getMessage();
+    }
+
+    private static String readSuppress(DataInputStream in, List<String> dictionary) throws IOException {
+        long timeMillis = in.readLong();
+        String logger = dictionary.get((int) RequestLogFormat.readVarLong(in));
+        String route = dictionary.get((int) RequestLogFormat.readVarLong(in));
+        return TIME_FORMAT.format(Instant.ofEpochMilli(timeMillis)) + " [suppressed] " + logger + " " + route
+                + " : sampledOut=" + RequestLogFormat.readVarLong(in)
+                + ", rateLimited=" + RequestLogFormat.readVarLong(in)
+                + ", dropped=" + RequestLogFormat.readVarLong(in);
+    }
+
+    private static Object readArg(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case RequestLogFormat.ARG_NULL -> null;
+            case RequestLogFormat.ARG_INT -> (int) RequestLogFormat.unZigZag(RequestLogFormat.readVarLong(in));
+            case RequestLogFormat.ARG_LONG -> RequestLogFormat.unZigZag(RequestLogFormat.readVarLong(in));
+            case RequestLogFormat.ARG_BOOLEAN -> in.readBoolean();
+            case RequestLogFormat.ARG_DOUBLE -> in.readDouble();
+            case RequestLogFormat.ARG_STRING -> in.readUTF();
+            default -> throw new IOException("unknown argument tag " + tag);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package hello.springmvc.basic.requestlog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * request : GET /request-log/stats -> {"<logger> <route>":{"sampledOut":..,"rateLimited":..,"dropped":..}}
+ */
+@RestController
+@RequiredArgsConstructor
+public class RequestLogStatsController {
+
+    private final RequestLogger requestLogger;
+
+    @GetMapping("/request-log/stats")
+    public Map<String, Map<String, Long>> stats() {
+        return requestLogger.stats();
+    }
+}
@@ -0,0 +1,277 @@
+package hello.springmvc.basic.requestlog;
+
+import hello.springmvc.basic.warmup.WarmupRequests;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 단위로 많이 찍히는 로그(파라미터, 요청 바디)용 로거
+ *
+ * - logger(컨트롤러 클래스) x route 별로 샘플링(sample-rate) 후 토큰 버킷(rate-per-second, burst)으로 제한한다.
+ *   route 는 현재 요청에 매칭된 핸들러 패턴(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), 요청 스레드가 아니면 "-".
+ * - 요청 스레드에서는 문자열을 만들지 않고 인자 참조만 queue 에 넣는다. (인자는 로그 후에 변경하지 않는다고 가정)
+ * - writer 스레드가 바이너리 파일(RequestLogFile)로 기록한다. 읽을 때는 RequestLogReader 사용.
+ * - 버려진 건수(sampledOut, rateLimited, queue 가 가득 차서 dropped)는 report-interval 마다 파일과 slf4j 로 보고한다.
+ * - 기동 warm-up 요청(WarmupRequests)은 기록하지 않고, 샘플링/토큰도 소모하지 않는다.
+ *
+ * ex) requestLog.info(getClass(), "username={}, age={}", username, age);
+ */
+@Slf4j
+public class RequestLogger implements Closeable {
+
+    private static final String NO_ROUTE = "-";
+
+    private final RequestLogProperties properties;
+    private final Map<Class<?>, Map<String, Channel>> channels = new ConcurrentHashMap<>();
+    private final BlockingQueue<Event> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    public RequestLogger(RequestLogProperties properties) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        if (properties.isEnabled()) {
+            running = true;
+            writer = new Thread(this::writeLoop, "request-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    public void info(Class<?> logger, String message, Object... args) {
+        HttpServletRequest request = currentRequest();
+        if (request != null && WarmupRequests.isWarmup(request)) {
+            return;
+        }
+        Channel channel = channel(logger, route(request));
+        if (channel.sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= channel.sampleRate) {
+            channel.sampledOut.increment();
+            return;
+        }
+        if (!channel.bucket.tryAcquire()) {
+            channel.rateLimited.increment();
+            return;
+        }
+        if (!running) {
+            LoggerFactory.getLogger(logger).info(message, args);
+            return;
+        }
+        if (!queue.offer(new Event(System.currentTimeMillis(), Thread.currentThread().getName(), channel, message, args))) {
+            channel.dropped.increment();
+        }
+    }
+
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        for (Map<String, Channel> routes : channels.values()) {
+            for (Channel channel : routes.values()) {
+                Map<String, Long> counts = new LinkedHashMap<>();
+                counts.put("sampledOut", channel.sampledOut.sum());
+                counts.put("rateLimited", channel.rateLimited.sum());
+                counts.put("dropped", channel.dropped.sum());
+                stats.put(channel.logger + " " + channel.route, counts);
+            }
+        }
+        return stats;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+
+    // 요청 URI 대신 패턴을 쓰므로 /mapping/{userId} 같은 경로도 channel 이 하나만 생긴다
+    private static String route(HttpServletRequest request) {
+        Object pattern = request == null ? null : request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? NO_ROUTE : pattern.toString();
+    }
+
+    private Channel channel(Class<?> logger, String route) {
+        Map<String, Channel> routes = channels.computeIfAbsent(logger, key -> new ConcurrentHashMap<>());
+        Channel channel = routes.get(route);
+        if (channel == null) {
+            channel = routes.computeIfAbsent(route, key -> createChannel(logger, key));
+        }
+        return channel;
+    }
+
+    private Channel createChannel(Class<?> logger, String route) {
+        RequestLogProperties.Rule routeRule = properties.getRoutes().get(route);
+        RequestLogProperties.Rule loggerRule = properties.getLoggers().get(logger.getSimpleName());
+        double sampleRate = pick(routeRule == null ? null : routeRule.getSampleRate(),
+                loggerRule == null ? null : loggerRule.getSampleRate(), properties.getSampleRate());
+        double ratePerSecond = pick(routeRule == null ? null : routeRule.getRatePerSecond(),
+                loggerRule == null ? null : loggerRule.getRatePerSecond(), properties.getRatePerSecond());
+        int burst = pick(routeRule == null ? null : routeRule.getBurst(),
+                loggerRule == null ? null : loggerRule.getBurst(), properties.getBurst());
+        return new Channel(logger.getName(), route, sampleRate, new TokenBucket(ratePerSecond, burst));
+    }
+
+    private static <T> T pick(T routeValue, T loggerValue, T defaultValue) {
+        return routeValue != null ? routeValue : loggerValue != null ? loggerValue : defaultValue;
+    }
+
+    private void writeLoop() {
+        Path file = properties.getFile();
+        long reportIntervalMillis = properties.getReportInterval().toMillis();
+        try (RequestLogFile out = new RequestLogFile(file, properties.getMaxFileSize().toBytes())) {
+            List<Event> batch = new ArrayList<>(1024);
+            long lastReport = System.currentTimeMillis();
+            while (running || !queue.isEmpty()) {
+                Event first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, 1023);
+                    for (Event event : batch) {
+                        writeEvent(out, event);
+                    }
+                    batch.clear();
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastReport >= reportIntervalMillis || !running) {
+                    report(out, now);
+                    lastReport = now;
+                }
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("request log writer stopped, file={}", file, e);
+            running = false;
+        }
+    }
+
+    private void writeEvent(RequestLogFile file, Event event) throws IOException {
+        long threadId = file.intern(event.thread());
+        long loggerId = file.intern(event.channel().logger);
+        long routeId = file.intern(event.channel().route);
+        long messageId = file.intern(event.message());
+
+        DataOutputStream out = file.beginRecord(RequestLogFormat.EVENT);
+        out.writeLong(event.timeMillis());
+        RequestLogFormat.writeVarLong(out, threadId);
+        RequestLogFormat.writeVarLong(out, loggerId);
+        RequestLogFormat.writeVarLong(out, routeId);
+        RequestLogFormat.writeVarLong(out, messageId);
+        Object[] args = event.args() == null ? new Object[0] : event.args();
+        RequestLogFormat.writeVarLong(out, args.length);
+        for (Object arg : args) {
+            writeArg(out, arg);
+        }
+        file.endRecord();
+    }
+
+    private static void writeArg(DataOutputStream out, Object arg) throws IOException {
+        if (arg == null) {
+            out.writeByte(RequestLogFormat.ARG_NULL);
+        } else if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            out.writeByte(RequestLogFormat.ARG_INT);
+            RequestLogFormat.writeVarLong(out, RequestLogFormat.zigZag(((Number) arg).intValue()));
+        } else if (arg instanceof Long value) {
+            out.writeByte(RequestLogFormat.ARG_LONG);
+            RequestLogFormat.writeVarLong(out, RequestLogFormat.zigZag(value));
+        } else if (arg instanceof Boolean value) {
+            out.writeByte(RequestLogFormat.ARG_BOOLEAN);
+            out.writeBoolean(value);
+        } else if (arg instanceof Double || arg instanceof Float) {
+            out.writeByte(RequestLogFormat.ARG_DOUBLE);
+            out.writeDouble(((Number) arg).doubleValue());
+        } else {
+            // 문자열 변환은 여기(writer 스레드)에서만 한다
+            out.writeByte(RequestLogFormat.ARG_STRING);
+            out.writeUTF(RequestLogFormat.truncate(String.valueOf(arg)));
+        }
+    }
+
+    private void report(RequestLogFile file, long now) throws IOException {
+        for (Map<String, Channel> routes : channels.values()) {
+            for (Channel channel : routes.values()) {
+                long sampledOut = channel.sampledOut.sum();
+                long rateLimited = channel.rateLimited.sum();
+                long dropped = channel.dropped.sum();
+                long sampledOutDelta = sampledOut - channel.reportedSampledOut;
+                long rateLimitedDelta = rateLimited - channel.reportedRateLimited;
+                long droppedDelta = dropped - channel.reportedDropped;
+                if (sampledOutDelta == 0 && rateLimitedDelta == 0 && droppedDelta == 0) {
+                    continue;
+                }
+                channel.reportedSampledOut = sampledOut;
+                channel.reportedRateLimited = rateLimited;
+                channel.reportedDropped = dropped;
+
+                long loggerId = file.intern(channel.logger);
+                long routeId = file.intern(channel.route);
+                DataOutputStream out = file.beginRecord(RequestLogFormat.SUPPRESS);
+                out.writeLong(now);
+                RequestLogFormat.writeVarLong(out, loggerId);
+                RequestLogFormat.writeVarLong(out, routeId);
+                RequestLogFormat.writeVarLong(out, sampledOutDelta);
+                RequestLogFormat.writeVarLong(out, rateLimitedDelta);
+                RequestLogFormat.writeVarLong(out, droppedDelta);
+                file.endRecord();
+                log.info("request log suppressed {} {} : sampledOut={}, rateLimited={}, dropped={}",
+                        channel.logger, channel.route, sampledOutDelta, rateLimitedDelta, droppedDelta);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record Event(long timeMillis, String thread, Channel channel, String message, Object[] args) {
+    }
+
+    private static final class Channel {
+        private final String logger;
+        private final String route;
+        private final double sampleRate;
+        private final TokenBucket bucket;
+        private final LongAdder sampledOut = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        // writer 스레드 전용 (직전 보고 시점의 누적값)
+        private long reportedSampledOut;
+        private long reportedRateLimited;
+        private long reportedDropped;
+
+        private Channel(String logger, String route, double sampleRate, TokenBucket bucket) {
+            this.logger = logger;
+            this.route = route;
+            this.sampleRate = sampleRate;
+            this.bucket = bucket;
+        }
+    }
+}
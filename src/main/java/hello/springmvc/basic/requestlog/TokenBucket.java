@@ -0,0 +1,44 @@
+package hello.springmvc.basic.requestlog;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 초당 ratePerSecond 개씩 채워지고 최대 burst 개까지 쌓이는 토큰 버킷 (lock-free)
+ *
+ * 토큰 수와 마지막 충전 시각을 따로 두지 않고 "버킷이 비는 시각(emptyAt)" 하나로 표현한다.
+ * 토큰 수 = min(burst, (now - emptyAt) / nanosPerToken) 이고, 토큰 하나를 쓰면 emptyAt 이 nanosPerToken 만큼 뒤로 간다.
+ * 요청 스레드마다 CAS 한 번으로 끝나고, 토큰이 없으면 쓰기 없이 바로 false 를 돌려준다.
+ * (nanoTime 은 overflow 할 수 있으므로 시각은 빼기로만 비교한다)
+ */
+class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos; // 빈 버킷이 가득 차는 데 걸리는 시간
+    private final AtomicLong emptyAt;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        int capacity = Math.max(1, burst);
+        long maxNanosPerToken = Long.MAX_VALUE / 4 / capacity; // rate 0 이하 -> 사실상 다시 채워지지 않는다
+        this.nanosPerToken = ratePerSecond > 0
+                ? Math.max(1, Math.min(maxNanosPerToken, Math.round(1_000_000_000d / ratePerSecond)))
+                : maxNanosPerToken;
+        this.burstNanos = capacity * nanosPerToken;
+        this.emptyAt = new AtomicLong(System.nanoTime() - burstNanos); // 가득 찬 상태로 시작
+    }
+
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = emptyAt.get();
+            long full = now - burstNanos;
+            long base = full - current > 0 ? full : current; // burst 개 넘게 쌓이지 않는다
+            long next = base + nanosPerToken;
+            if (next - now > 0) {
+                return false;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
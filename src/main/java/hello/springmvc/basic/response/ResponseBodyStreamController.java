@@ -0,0 +1,137 @@
+package hello.springmvc.basic.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hello.springmvc.basic.HelloData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DisconnectedClientHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대용량 JSON 응답 - StreamingResponseBody
+ *
+ * responseBodyJsonV1/V2 처럼 객체를 반환하면 HTTP 메시지 컨버터가 전체를 한 번에 직렬화한다.
+ * 수백만 건을 내보낼 때는 List 를 만들지 않고, 레코드가 만들어지는 대로 응답 OutputStream 에 바로 쓴다.
+ *
+ * - Content-Length 를 정하지 않으므로 chunked transfer encoding 으로 나간다.
+ * - 버퍼는 Jackson generator 버퍼 + 서블릿 응답 버퍼 뿐이고, flush-every-records 건 또는 flush-interval-ms 마다 flush 한다.
+ * - 클라이언트가 연결을 끊으면 write/flush 에서 IOException 이 나므로 그 즉시 생산을 멈춘다. (취소로 보고 info 로그)
+ * - 그 외 오류는 error 로그를 남기고 다시 던진다. 중간에 끊긴 응답이 정상적인 JSON 배열처럼 보이지 않도록
+ *   AUTO_CLOSE_JSON_CONTENT 를 끄고 닫는 ']' 는 끝까지 쓴 경우에만 쓴다.
+ *
+ * request : GET /response-body-json-stream?count=1000000&format=ndjson
+ * format  : json(기본, JSON 배열) | ndjson(한 줄에 하나)
+ */
+@Slf4j
+@Controller
+public class ResponseBodyStreamController {
+
+    private final ObjectWriter objectWriter;
+    private final ObjectMapper objectMapper;
+    private final int flushEveryRecords;
+    private final long flushIntervalNanos;
+
+    public ResponseBodyStreamController(ObjectMapper objectMapper,
+                                        @Value("${hello.export.flush-every-records:1000}") int flushEveryRecords,
+                                        @Value("${hello.export.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); // 레코드마다 flush 하지 않도록
+        this.flushEveryRecords = flushEveryRecords;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+    }
+
+    @GetMapping("/response-body-json-stream")
+    public ResponseEntity<StreamingResponseBody> responseBodyJsonStream(
+            @RequestParam(defaultValue = "1000") long count,
+            @RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = outputStream -> write(outputStream, produce(count), ndjson);
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void write(OutputStream outputStream, Iterator<HelloData> records, boolean ndjson) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // 응답 스트림은 컨테이너가 닫는다
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT); // 실패해서 close 될 때 ']' 를 붙이지 않는다
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            int unflushed = 0;
+            long lastFlush = System.nanoTime();
+            while (records.hasNext()) {
+                objectWriter.writeValue(generator, records.next());
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                written++;
+
+                if (++unflushed >= flushEveryRecords || System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                    generator.flush(); // 이 시점에 chunk 가 클라이언트로 나간다
+                    unflushed = 0;
+                    lastFlush = System.nanoTime();
+                }
+            }
+
+            if (Thread.currentThread().isInterrupted()) { // 비동기 요청 timeout 등으로 취소됨 -> 배열을 닫지 않는다
+                log.info("stream cancelled after {} records", written);
+                return;
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            if (DisconnectedClientHelper.isClientDisconnectedException(e)) {
+                // 클라이언트 연결 종료(ClientAbortException 등) -> 남은 레코드는 만들지 않는다
+                log.info("stream cancelled by client after {} records: {}", written, e.toString());
+                return;
+            }
+            log.error("stream failed after {} records", written, e);
+            throw e;
+        }
+        log.debug("stream completed, records={}", written);
+    }
+
+    // 실제 조회 대신 요청 시점에 하나씩 만들어내는 producer
+    private static Iterator<HelloData> produce(long count) {
+        return new Iterator<>() {
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count && !Thread.currentThread().isInterrupted();
+            }
+
+            @Override
+            public HelloData next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                HelloData helloData = new HelloData();
+                helloData.setUsername("user-" + index);
+                helloData.setAge((int) (index % 100));
+                index++;
+                return helloData;
+            }
+        };
+    }
+}
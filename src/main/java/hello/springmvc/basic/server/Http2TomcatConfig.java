@@ -0,0 +1,48 @@
+package hello.springmvc.basic.server;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP/2 cleartext(h2c) 모드 - application-h2c.properties (--spring.profiles.active=h2c)
+ *
+ * server.http2.enabled=true 이면 스프링 부트가 Tomcat connector 에 Http2Protocol 을 upgrade protocol 로 추가한다.
+ * TLS 가 없으므로 h2c 로 동작한다. (HTTP/1.1 Upgrade: h2c, 또는 prior knowledge)
+ * 여기서는 작은 응답("ok")을 많이 주고받는 경우에 맞춰 stream 동시성 / flow-control window / keep-alive 를 조정한다.
+ *
+ * 헤더 압축(HPACK)은 Http2Protocol 에 내장되어 있어 별도 설정이 없다.
+ * 같은 connection 에서 반복되는 헤더는 dynamic table 로 인덱싱되어 몇 바이트로 줄어든다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2TomcatConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2ProtocolCustomizer(
+            @Value("${hello.http2.max-concurrent-streams:256}") long maxConcurrentStreams,
+            @Value("${hello.http2.max-concurrent-stream-execution:64}") int maxConcurrentStreamExecution,
+            @Value("${hello.http2.initial-window-size:65535}") int initialWindowSize,
+            @Value("${hello.http2.keep-alive-timeout-ms:30000}") long keepAliveTimeout) {
+
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2Protocol) {
+                    http2Protocol.setMaxConcurrentStreams(maxConcurrentStreams); // connection 당 동시에 열 수 있는 stream 수
+                    http2Protocol.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution); // connection 당 동시에 실행되는 stream 수 (worker thread 점유)
+                    http2Protocol.setInitialWindowSize(initialWindowSize);
+                    http2Protocol.setKeepAliveTimeout(keepAliveTimeout);
+                    log.info("h2c enabled: maxConcurrentStreams={}, maxConcurrentStreamExecution={}, initialWindowSize={}, keepAliveTimeout={}ms",
+                            maxConcurrentStreams, maxConcurrentStreamExecution, initialWindowSize, keepAliveTimeout);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package hello.springmvc.basic.warmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.UUID;
+
+/**
+ * warm-up 이 보내는 합성 요청 표시
+ *
+ * WarmupRunner 는 모든 요청에 X-Warmup 헤더를 붙인다. 값은 기동할 때마다 새로 만드는 토큰이라
+ * 외부 클라이언트가 같은 헤더를 보내도 warm-up 요청으로 취급되지 않는다.
+ * 요청 로그, 헤더 캐시 적중률처럼 실제 트래픽만 남겨야 하는 곳에서 isWarmup(request) 로 걸러낸다.
+ */
+public final class WarmupRequests {
+
+    public static final String HEADER = "X-Warmup";
+
+    private static final String TOKEN = UUID.randomUUID().toString();
+
+    private WarmupRequests() {
+    }
+
+    static String token() {
+        return TOKEN;
+    }
+
+    public static boolean isWarmup(HttpServletRequest request) {
+        return TOKEN.equals(request.getHeader(HEADER));
+    }
+}
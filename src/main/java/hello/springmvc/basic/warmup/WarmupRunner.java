@@ -0,0 +1,265 @@
+package hello.springmvc.basic.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Ssl;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.condition.MediaTypeExpression;
+import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UriUtils;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 기동 직후 warm-up
+ *
+ * 등록된 모든 핸들러 메서드(RequestMappingHandlerMapping)에 대해 합성 요청을 만들어
+ * 내장 서버(loopback)로 보낸다. Tomcat -> DispatcherServlet -> 바인더 / 메시지 컨버터 / Thymeleaf 뷰까지
+ * 실제 요청과 같은 경로를 타므로 템플릿 파싱, Jackson deserializer, 바인더/introspection 캐시, JIT 가 미리 데워진다.
+ *
+ * ApplicationRunner 는 ApplicationReadyEvent 이전에 실행되므로, readiness(ACCEPTING_TRAFFIC) 는 warm-up 이 끝난 뒤에 보고된다.
+ * 내장 서버가 없는 환경(MOCK 테스트 등)에서는 건너뛴다.
+ *
+ * - 요청 주소는 server.ssl(http/https), server.address, server.servlet.context-path 설정을 따른다.
+ * - 실제 클라이언트 요청과 구분되도록 모든 요청에 WarmupRequests.HEADER 를 붙인다.
+ *   (요청 로그는 이 요청을 기록하지 않고, 헤더 파싱 캐시는 적중률 통계에 넣지 않는다)
+ * - 상태를 바꾸는 경로와 통계 경로(ALWAYS_EXCLUDED)는 설정과 관계없이 항상 제외하고, exclude-paths 는 여기에 더해진다.
+ * - 요청의 절반 이상이 실패(2xx 가 아닌 응답, 연결 오류)하면 warm-up 이 된 것이 아니므로 시간 비교 대신 warn 로그를 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hello.warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String JSON_BODY = "{\"username\":\"warmup\",\"age\":20}";
+    private static final List<String> ALWAYS_EXCLUDED = List.of("/error", "/journal/**", "/**/stats");
+
+    private final ApplicationContext applicationContext;
+    private final ServerProperties serverProperties;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final int iterations;
+    private final List<String> excludePaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public WarmupRunner(ApplicationContext applicationContext,
+                        ServerProperties serverProperties,
+                        @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                        @Value("${hello.warmup.iterations:10}") int iterations,
+                        @Value("${hello.warmup.exclude-paths:}") List<String> excludePaths) {
+        this.applicationContext = applicationContext;
+        this.serverProperties = serverProperties;
+        this.handlerMapping = handlerMapping;
+        this.iterations = iterations;
+        this.excludePaths = new ArrayList<>(ALWAYS_EXCLUDED);
+        excludePaths.stream()
+                .filter(path -> !path.isBlank())
+                .forEach(this.excludePaths::add);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!(applicationContext instanceof WebServerApplicationContext webServerContext)
+                || webServerContext.getWebServer() == null) {
+            log.info("warm-up skipped: no embedded web server");
+            return;
+        }
+        String baseUrl = baseUrl(webServerContext.getWebServer().getPort());
+        List<HttpRequest> requests = createRequests(baseUrl);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Map<String, Long> firstPass = new LinkedHashMap<>();
+        Map<String, Long> lastPass = new LinkedHashMap<>();
+        int sent = 0;
+        int failed = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (HttpRequest request : requests) {
+                long sendStart = System.nanoTime();
+                boolean succeeded = send(client, request);
+                long elapsed = System.nanoTime() - sendStart;
+                sent++;
+                if (!succeeded) {
+                    failed++;
+                }
+                String key = request.method() + " " + request.uri().getPath();
+                if (i == 0) {
+                    firstPass.put(key, elapsed);
+                }
+                if (i == iterations - 1) {
+                    lastPass.put(key, elapsed);
+                }
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (failed * 2 > sent) {
+            log.warn("warm-up failed: {} of {} requests to {} failed (not 2xx or no response), elapsed={}ms; see debug log for each request",
+                    failed, sent, baseUrl, elapsedMillis);
+            return;
+        }
+        long firstTotal = firstPass.values().stream().mapToLong(Long::longValue).sum();
+        long lastTotal = lastPass.values().stream().mapToLong(Long::longValue).sum();
+        log.info("warm-up finished: requests={}, iterations={}, failed={}/{}, elapsed={}ms, first pass={}us, last pass={}us (first requests x{} faster after warm-up)",
+                requests.size(), iterations, failed, sent, elapsedMillis, firstTotal / 1000, lastTotal / 1000,
+                lastTotal == 0 ? "-" : String.format("%.1f", (double) firstTotal / lastTotal));
+        if (log.isDebugEnabled()) {
+            firstPass.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                    .forEach(e -> log.debug("warm-up {} : first={}us, last={}us",
+                            e.getKey(), e.getValue() / 1000, lastPass.getOrDefault(e.getKey(), 0L) / 1000));
+        }
+    }
+
+    // 2xx 응답이면 true
+    private boolean send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                log.debug("warm-up {} {} -> {}", request.method(), request.uri(), response.statusCode());
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.debug("warm-up {} {} failed: {}", request.method(), request.uri(), e.toString());
+            return false;
+        }
+    }
+
+    // 서버가 실제로 받는 주소 : 모든 인터페이스(기본값)에 바인딩됐으면 loopback, 특정 주소면 그 주소
+    private String baseUrl(int port) {
+        String scheme = Ssl.isEnabled(serverProperties.getSsl()) ? "https" : "http";
+        InetAddress address = serverProperties.getAddress();
+        String host;
+        if (address == null || address.isAnyLocalAddress()) {
+            host = "localhost";
+        } else if (address instanceof Inet6Address) {
+            host = "[" + address.getHostAddress() + "]";
+        } else {
+            host = address.getHostAddress();
+        }
+        String contextPath = serverProperties.getServlet().getContextPath();
+        return scheme + "://" + host + ":" + port + (StringUtils.hasText(contextPath) ? contextPath : "");
+    }
+
+    private List<HttpRequest> createRequests(String baseUrl) {
+        List<HttpRequest> requests = new ArrayList<>();
+        for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+            String pattern = info.getPatternValues().stream().findFirst().orElse(null);
+            if (pattern == null || pattern.contains("*") || isExcluded(pattern)) {
+                continue;
+            }
+            RequestMethod method = info.getMethodsCondition().getMethods().stream()
+                    .sorted()
+                    .findFirst()
+                    .orElse(RequestMethod.GET);
+
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + expand(pattern) + "?" + query(info.getParamsCondition().getExpressions())))
+                    .timeout(Duration.ofSeconds(10));
+            headers(info.getHeadersCondition().getExpressions()).forEach(builder::header);
+            builder.header(WarmupRequests.HEADER, WarmupRequests.token());
+            builder.header(HttpHeaders.ACCEPT, accept(info.getProducesCondition().getExpressions()));
+
+            if (method == RequestMethod.POST || method == RequestMethod.PUT || method == RequestMethod.PATCH) {
+                builder.header(HttpHeaders.CONTENT_TYPE, contentType(info.getConsumesCondition().getExpressions()));
+                builder.method(method.name(), HttpRequest.BodyPublishers.ofString(JSON_BODY));
+            } else {
+                builder.method(method.name(), HttpRequest.BodyPublishers.noBody());
+            }
+            requests.add(builder.build());
+        }
+        return requests;
+    }
+
+    private boolean isExcluded(String pattern) {
+        return excludePaths.stream().anyMatch(exclude -> pathMatcher.match(exclude, pattern));
+    }
+
+    // /mapping/{userId} -> /mapping/warmup
+    private static String expand(String pattern) {
+        return pattern.replaceAll("\\{[^}]+}", "warmup");
+    }
+
+    // 바인딩 대상(username, age)은 항상 넣고, params 조건을 만족하도록 값을 맞춘다.
+    private static String query(Iterable<NameValueExpression<String>> expressions) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("username", "warmup");
+        params.put("age", "20");
+        for (NameValueExpression<String> expression : expressions) {
+            if (expression.getValue() == null) {
+                if (expression.isNegated()) {
+                    params.remove(expression.getName());
+                } else {
+                    params.putIfAbsent(expression.getName(), "warmup");
+                }
+            } else {
+                params.put(expression.getName(), expression.isNegated() ? "warmup" : expression.getValue());
+            }
+        }
+        return params.entrySet().stream()
+                .map(e -> UriUtils.encodeQueryParam(e.getKey(), StandardCharsets.UTF_8)
+                        + "=" + UriUtils.encodeQueryParam(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static Map<String, String> headers(Iterable<NameValueExpression<String>> expressions) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (NameValueExpression<String> expression : expressions) {
+            if (expression.isNegated()) {
+                continue;
+            }
+            headers.put(expression.getName(), expression.getValue() == null ? "warmup" : expression.getValue());
+        }
+        return headers;
+    }
+
+    private static String accept(Iterable<MediaTypeExpression> expressions) {
+        return firstConcrete(expressions, MediaType.ALL);
+    }
+
+    private static String contentType(Iterable<MediaTypeExpression> expressions) {
+        return firstConcrete(expressions, MediaType.APPLICATION_JSON);
+    }
+
+    private static String firstConcrete(Iterable<MediaTypeExpression> expressions, MediaType defaultType) {
+        for (MediaTypeExpression expression : expressions) {
+            if (!expression.isNegated() && expression.getMediaType().isConcrete()) {
+                return expression.getMediaType().toString();
+            }
+        }
+        return defaultType.toString();
+    }
+}
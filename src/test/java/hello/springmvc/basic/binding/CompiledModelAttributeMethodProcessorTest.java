@@ -0,0 +1,272 @@
+package hello.springmvc.basic.binding;
+
+import hello.springmvc.basic.HelloData;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.NumberFormat;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ServletModelAttributeMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 요청을 기본 ServletModelAttributeMethodProcessor 와 CompiledModelAttributeMethodProcessor 로 바인딩해서
+ * 바인딩된 값과 FieldError(field, rejectedValue, codes, bindingFailure)가 같은지 비교한다.
+ */
+class CompiledModelAttributeMethodProcessorTest {
+
+    private final HandlerMethodArgumentResolver defaultProcessor = new ServletModelAttributeMethodProcessor(false);
+    private final HandlerMethodArgumentResolver compiledProcessor = new CompiledModelAttributeMethodProcessor(
+            List.of(HelloData.class, BirthdayData.class, PriceData.class));
+
+    @Test
+    void validParameters() throws Exception {
+        Binding binding = assertSameBinding("username", "hello", "age", "20");
+
+        assertThat(binding.target().getUsername()).isEqualTo("hello");
+        assertThat(binding.target().getAge()).isEqualTo(20);
+        assertThat(binding.errors()).isEmpty();
+    }
+
+    @Test
+    void ageTypeMismatch() throws Exception {
+        Binding binding = assertSameBinding("username", "hello", "age", "abc");
+
+        assertThat(binding.target().getUsername()).isEqualTo("hello");
+        assertThat(binding.errors()).extracting(BindingError::field).containsExactly("age");
+        assertThat(binding.errors().get(0).codes()).contains("typeMismatch.helloData.age", "typeMismatch");
+        assertThat(binding.errors().get(0).rejectedValue()).isEqualTo("abc");
+    }
+
+    @Test
+    void emptyAgeOnPrimitive() throws Exception {
+        Binding binding = assertSameBinding("username", "hello", "age", "");
+
+        assertThat(binding.errors()).extracting(BindingError::field).containsExactly("age");
+        assertThat(binding.errors().get(0).codes()).contains("typeMismatch.helloData.age", "typeMismatch");
+    }
+
+    @Test
+    void multiValuedUsername() throws Exception {
+        Binding binding = assertSameBinding("username", "kim", "username", "lee", "age", "20");
+
+        assertThat(binding.target().getUsername()).isEqualTo("kim,lee");
+        assertThat(binding.errors()).isEmpty();
+    }
+
+    @Test
+    void unknownFieldsAreIgnored() throws Exception {
+        Binding binding = assertSameBinding("username", "hello", "nickname", "hi", "email", "");
+
+        assertThat(binding.target().getUsername()).isEqualTo("hello");
+        assertThat(binding.target().getAge()).isZero();
+        assertThat(binding.errors()).isEmpty();
+    }
+
+    @Test
+    void capitalizedPropertyName() throws Exception {
+        // BeanWrapper 는 Age -> age 로도 property 를 찾는다
+        Binding binding = assertSameBinding("username", "hello", "Age", "30");
+
+        assertThat(binding.target().getAge()).isEqualTo(30);
+    }
+
+    @Test
+    void dateTimeFormatOnField() throws Exception {
+        // 미리 정해둔 변환 함수가 없는 타입은 field 의 TypeDescriptor 로 변환하므로 ISO 형식이 적용된다
+        Binding<BirthdayData> binding = assertSameBinding(BirthdayData.class,
+                new DefaultFormattingConversionService(), "username", "kim", "birthday", "2024-01-15");
+
+        assertThat(binding.target().getBirthday()).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(binding.errors()).isEmpty();
+    }
+
+    @Test
+    void dateTimeFormatMismatch() throws Exception {
+        Binding<BirthdayData> binding = assertSameBinding(BirthdayData.class,
+                new DefaultFormattingConversionService(), "username", "kim", "birthday", "2024/01/15");
+
+        assertThat(binding.errors()).extracting(BindingError::field).containsExactly("birthday");
+        assertThat(binding.errors().get(0).codes()).contains("typeMismatch.birthdayData.birthday", "typeMismatch");
+    }
+
+    @Test
+    void numberFormatOnField() throws Exception {
+        // @NumberFormat 이 붙은 숫자 property 는 미리 정해둔 변환 함수 대신 기본 프로세서가 바인딩한다
+        LocaleContextHolder.setLocale(Locale.KOREA); // 천 단위 구분자 ','
+        try {
+            Binding<PriceData> binding = assertSameBinding(PriceData.class,
+                    new DefaultFormattingConversionService(), "name", "book", "price", "12,000");
+
+            assertThat(binding.target().getPrice()).isEqualTo(12_000);
+            assertThat(binding.errors()).isEmpty();
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+    @Test
+    void customConverterForPropertyType() throws Exception {
+        DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+        conversionService.addConverter(String.class, Integer.class,
+                (Converter<String, Integer>) source -> Integer.valueOf(source.replace("_", "")));
+
+        Binding<HelloData> binding = assertSameBinding(HelloData.class, conversionService, "username", "hello", "age", "1_000");
+
+        assertThat(binding.target().getAge()).isEqualTo(1000);
+        assertThat(binding.errors()).isEmpty();
+    }
+
+    private Binding<HelloData> assertSameBinding(String... nameValues) throws Exception {
+        return assertSameBinding(HelloData.class, new DefaultFormattingConversionService(), nameValues);
+    }
+
+    private <T> Binding<T> assertSameBinding(Class<T> type, DefaultFormattingConversionService conversionService,
+                                             String... nameValues) throws Exception {
+        Binding<T> expected = bind(defaultProcessor, type, conversionService, nameValues);
+        Binding<T> actual = bind(compiledProcessor, type, conversionService, nameValues);
+
+        assertThat(actual.target()).isEqualTo(expected.target());
+        assertThat(actual.errors()).isEqualTo(expected.errors());
+        return actual;
+    }
+
+    private static <T> Binding<T> bind(HandlerMethodArgumentResolver resolver, Class<T> type,
+                                       DefaultFormattingConversionService conversionService,
+                                       String... nameValues) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/model-attribute-v1");
+        for (int i = 0; i < nameValues.length; i += 2) {
+            request.addParameter(nameValues[i], nameValues[i + 1]);
+        }
+        ConfigurableWebBindingInitializer initializer = new ConfigurableWebBindingInitializer();
+        initializer.setConversionService(conversionService);
+        ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+
+        T target = type.cast(resolver.resolveArgument(parameter(type), mavContainer,
+                new ServletWebRequest(request), new ServletRequestDataBinderFactory(null, initializer)));
+
+        String name = StringUtils.uncapitalize(type.getSimpleName());
+        BindingResult bindingResult = (BindingResult) mavContainer.getModel().get(BindingResult.MODEL_KEY_PREFIX + name);
+        List<BindingError> errors = bindingResult.getFieldErrors().stream()
+                .map(BindingError::from)
+                .toList();
+        return new Binding<>(target, errors);
+    }
+
+    private static MethodParameter parameter(Class<?> type) {
+        try {
+            return new MethodParameter(Handler.class.getDeclaredMethod("bind", type, BindingResult.class), 0);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // BindingResult 를 같이 받으므로 바인딩 오류가 있어도 예외 대신 결과가 model 에 남는다
+    private static class Handler {
+        @SuppressWarnings("unused")
+        void bind(@ModelAttribute HelloData helloData, BindingResult bindingResult) {
+        }
+
+        @SuppressWarnings("unused")
+        void bind(@ModelAttribute BirthdayData birthdayData, BindingResult bindingResult) {
+        }
+
+        @SuppressWarnings("unused")
+        void bind(@ModelAttribute PriceData priceData, BindingResult bindingResult) {
+        }
+    }
+
+    private record Binding<T>(T target, List<BindingError> errors) {
+    }
+
+    private record BindingError(String field, Object rejectedValue, List<String> codes, boolean bindingFailure) {
+        static BindingError from(FieldError fieldError) {
+            return new BindingError(fieldError.getField(), fieldError.getRejectedValue(),
+                    Arrays.asList(fieldError.getCodes()), fieldError.isBindingFailure());
+        }
+    }
+
+    public static class BirthdayData {
+        private String username;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate birthday;
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public LocalDate getBirthday() {
+            return birthday;
+        }
+
+        public void setBirthday(LocalDate birthday) {
+            this.birthday = birthday;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BirthdayData other
+                    && Objects.equals(username, other.username) && Objects.equals(birthday, other.birthday);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, birthday);
+        }
+    }
+
+    public static class PriceData {
+        private String name;
+        @NumberFormat(pattern = "#,##0")
+        private int price;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+
+        public void setPrice(int price) {
+            this.price = price;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PriceData other && Objects.equals(name, other.name) && price == other.price;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, price);
+        }
+    }
+}
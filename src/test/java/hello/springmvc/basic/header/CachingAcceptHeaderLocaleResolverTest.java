@@ -0,0 +1,95 @@
+package hello.springmvc.basic.header;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 Accept-Language 헤더에 대해 request.getLocale() (기본 AcceptHeaderLocaleResolver 의 결과)과 같은 Locale 을 내는지 비교한다.
+ * 캐시를 거친 두 번째 호출도 같은 결과여야 한다.
+ */
+class CachingAcceptHeaderLocaleResolverTest {
+
+    private final ParsedHeaderCache<Optional<Locale>> cache =
+            new ParsedHeaderCache<>(16, CachingAcceptHeaderLocaleResolver::parseAcceptLanguage);
+    private final CachingAcceptHeaderLocaleResolver resolver = new CachingAcceptHeaderLocaleResolver(cache);
+
+    @Test
+    void sameLocaleAsRequest() {
+        List<String> headers = List.of(
+                "ko",
+                "ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7",
+                "en;q=0.5, ko",                 // q 값 순서
+                "da, en-gb;q=0.8, en;q=0.7",
+                "fr;q=0.7, de;q=0.7",           // 같은 q 는 헤더 순서
+                "EN-us");
+        for (String header : headers) {
+            assertSameLocale(header);
+        }
+        assertThat(resolve("en;q=0.5, ko")).isEqualTo(Locale.KOREAN);
+    }
+
+    @Test
+    void wildcardsAndZeroQuality() {
+        List<String> headers = List.of("*", "*, en", "en;q=0.5, *", "*;q=0", "*;q=0, ko", "en;q=0", "ko;q=0, *;q=0");
+        for (String header : headers) {
+            assertSameLocale(header);
+        }
+    }
+
+    @Test
+    void invalidHeaders() {
+        List<String> headers = List.of("", "!!", "en_US", "en;q=abc", "en;q=1.5", ";q=0.5");
+        for (String header : headers) {
+            assertSameLocale(header);
+        }
+    }
+
+    @Test
+    void multipleHeadersAreJoined() {
+        // 서블릿 컨테이너는 Accept-Language 헤더 여러 개를 하나의 목록으로 합쳐서 q 값 순으로 고른다
+        MockHttpServletRequest multiple = new MockHttpServletRequest();
+        multiple.addHeader(HttpHeaders.ACCEPT_LANGUAGE, "en;q=0.5");
+        multiple.addHeader(HttpHeaders.ACCEPT_LANGUAGE, "ko");
+
+        assertThat(resolver.resolveLocale(multiple)).isEqualTo(request("en;q=0.5,ko").getLocale());
+        assertThat(resolver.resolveLocale(multiple)).isEqualTo(Locale.KOREAN);
+    }
+
+    @Test
+    void missingHeaderUsesDefaultLocale() {
+        CachingAcceptHeaderLocaleResolver withDefault = new CachingAcceptHeaderLocaleResolver(cache);
+        withDefault.setDefaultLocale(Locale.JAPAN);
+        AcceptHeaderLocaleResolver expected = new AcceptHeaderLocaleResolver();
+        expected.setDefaultLocale(Locale.JAPAN);
+
+        assertThat(withDefault.resolveLocale(new MockHttpServletRequest()))
+                .isEqualTo(expected.resolveLocale(new MockHttpServletRequest()))
+                .isEqualTo(Locale.JAPAN);
+    }
+
+    private void assertSameLocale(String header) {
+        Locale expected = request(header).getLocale();
+
+        assertThat(resolve(header)).as(header).isEqualTo(expected); // miss
+        assertThat(resolve(header)).as(header).isEqualTo(expected); // hit
+        assertThat(new AcceptHeaderLocaleResolver().resolveLocale(request(header))).as(header).isEqualTo(expected);
+    }
+
+    private Locale resolve(String header) {
+        return resolver.resolveLocale(request(header));
+    }
+
+    private static MockHttpServletRequest request(String acceptLanguage) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_LANGUAGE, acceptLanguage);
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package hello.springmvc.basic.header;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 Accept 헤더에 대해 HeaderContentNegotiationStrategy 와 같은 MediaType 목록(순서 포함)을 내는지 비교한다.
+ * 캐시를 거친 두 번째 호출도 같은 결과여야 한다.
+ */
+class CachingHeaderContentNegotiationStrategyTest {
+
+    private final ContentNegotiationStrategy expected = new HeaderContentNegotiationStrategy();
+    private final ParsedHeaderCache<List<MediaType>> cache =
+            new ParsedHeaderCache<>(16, CachingHeaderContentNegotiationStrategy::parseAccept);
+    private final ContentNegotiationStrategy caching = new CachingHeaderContentNegotiationStrategy(cache);
+
+    @Test
+    void browserAccept() throws Exception {
+        List<MediaType> mediaTypes = assertSameMediaTypes(
+                "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8");
+
+        assertThat(mediaTypes.get(mediaTypes.size() - 1)).isEqualTo(MediaType.parseMediaType("*/*;q=0.8"));
+    }
+
+    @Test
+    void qualityOrdering() throws Exception {
+        List<MediaType> mediaTypes = assertSameMediaTypes("text/plain;q=0.5, application/json, text/html;q=0.8");
+
+        assertThat(mediaTypes).extracting(MediaType::toString)
+                .containsExactly("application/json", "text/html;q=0.8", "text/plain;q=0.5");
+    }
+
+    @Test
+    void wildcards() throws Exception {
+        assertSameMediaTypes("*/*");
+        assertSameMediaTypes("text/*, text/plain, */*;q=0.1");
+        assertSameMediaTypes("*;q=0");
+        assertSameMediaTypes("application/*+json, application/json;charset=UTF-8");
+    }
+
+    @Test
+    void multipleAcceptHeaders() throws Exception {
+        List<MediaType> mediaTypes = assertSameMediaTypes("text/plain;q=0.5", "application/json");
+
+        assertThat(mediaTypes).extracting(MediaType::toString).containsExactly("application/json", "text/plain;q=0.5");
+    }
+
+    @Test
+    void missingAndEmptyHeader() throws Exception {
+        assertThat(caching.resolveMediaTypes(request())).isEqualTo(expected.resolveMediaTypes(request()));
+        assertSameMediaTypes("");
+    }
+
+    @Test
+    void invalidHeader() {
+        for (String invalid : List.of("text", "text/html;q=abc", "/json", "text/html;charset=unknown-charset-x")) {
+            assertThatThrownBy(() -> expected.resolveMediaTypes(request(invalid)))
+                    .isInstanceOf(HttpMediaTypeNotAcceptableException.class);
+            assertThatThrownBy(() -> caching.resolveMediaTypes(request(invalid)))
+                    .isInstanceOf(HttpMediaTypeNotAcceptableException.class);
+        }
+        assertThat(cache.stats()).containsEntry("size", 0); // 파싱에 실패한 값은 캐시하지 않는다
+    }
+
+    private List<MediaType> assertSameMediaTypes(String... accept) throws Exception {
+        List<MediaType> expectedMediaTypes = expected.resolveMediaTypes(request(accept));
+
+        assertThat(caching.resolveMediaTypes(request(accept))).isEqualTo(expectedMediaTypes); // miss
+        assertThat(caching.resolveMediaTypes(request(accept))).isEqualTo(expectedMediaTypes); // hit
+        return expectedMediaTypes;
+    }
+
+    private static ServletWebRequest request(String... accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mapping-produces");
+        for (String value : accept) {
+            request.addHeader(HttpHeaders.ACCEPT, value);
+        }
+        return new ServletWebRequest(request);
+    }
+}
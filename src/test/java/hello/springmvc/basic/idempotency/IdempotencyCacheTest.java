@@ -0,0 +1,77 @@
+package hello.springmvc.basic.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * acquire / complete 순서에 따른 owner 결정, TTL 만료, 용량 초과 eviction 과 hit/wait/miss/evict 카운터
+ */
+class IdempotencyCacheTest {
+
+    @Test
+    void missWaitAndHitAreCounted() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 10, TimeUnit.MINUTES);
+
+        IdempotencyCache.Acquired owner = cache.acquire("key");
+        IdempotencyCache.Acquired waiter = cache.acquire("key"); // 처리 중
+        cache.complete(owner.entry(), response("created"));
+        IdempotencyCache.Acquired hit = cache.acquire("key"); // 완료됨
+
+        assertThat(owner.owner()).isTrue();
+        assertThat(waiter.owner()).isFalse();
+        assertThat(hit.owner()).isFalse();
+        assertThat(new String(waiter.entry().await(1, TimeUnit.SECONDS).body())).isEqualTo("created");
+        assertThat(cache.stats()).isEqualTo(Map.of("size", 1L, "hit", 1L, "wait", 1L, "miss", 1L, "evict", 0L));
+    }
+
+    @Test
+    void failedOwnerReleasesKey() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 10, TimeUnit.MINUTES);
+
+        IdempotencyCache.Acquired owner = cache.acquire("key");
+        IdempotencyCache.Acquired waiter = cache.acquire("key");
+        cache.complete(owner.entry(), null);
+
+        assertThat(waiter.entry().await(1, TimeUnit.SECONDS)).isNull();
+        assertThat(cache.acquire("key").owner()).isTrue(); // 기다리던 요청이 다시 owner 가 된다
+        assertThat(cache.stats()).containsEntry("miss", 2L).containsEntry("size", 1L);
+    }
+
+    @Test
+    void expiredEntryIsReplaced() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 1, TimeUnit.MILLISECONDS);
+
+        IdempotencyCache.Acquired owner = cache.acquire("key");
+        Thread.sleep(20); // 처리 중에는 TTL 을 세지 않는다
+        assertThat(cache.acquire("key").owner()).isFalse();
+
+        cache.complete(owner.entry(), response("created"));
+        Thread.sleep(20);
+
+        assertThat(cache.acquire("key").owner()).isTrue();
+        assertThat(cache.stats()).containsEntry("evict", 1L).containsEntry("miss", 2L).containsEntry("size", 1L);
+    }
+
+    @Test
+    void capacityEvictionSkipsInFlightEntries() {
+        IdempotencyCache cache = new IdempotencyCache(2, 10, TimeUnit.MINUTES);
+
+        cache.acquire("a"); // 가장 오래됐지만 처리 중
+        IdempotencyCache.Acquired done = cache.acquire("b");
+        cache.complete(done.entry(), response("b"));
+        cache.acquire("c"); // 3개 -> 하나를 지워야 한다
+
+        assertThat(cache.stats()).containsEntry("size", 2L).containsEntry("evict", 1L);
+        assertThat(cache.acquire("a").owner()).isFalse(); // 처리 중인 a 는 남아 있다
+        assertThat(cache.acquire("b").owner()).isTrue(); // 완료된 b 가 지워졌다
+    }
+
+    private static CachedResponse response(String body) {
+        return new CachedResponse(201, Map.of("X-Test", List.of("1")), "text/plain", body.getBytes());
+    }
+}
@@ -0,0 +1,184 @@
+package hello.springmvc.basic.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 Idempotency-Key 로 들어온 요청이 언제 재생(replay)되고 언제 다시 처리되는지 확인한다.
+ * 첫 요청(owner)의 처리는 latch 로 붙잡아 두고, 중복 요청이 기다리기 시작한 뒤에 풀어준다.
+ */
+class IdempotencyFilterTest {
+
+    private final IdempotencyCache cache = new IdempotencyCache(100, 10, TimeUnit.MINUTES);
+    private final IdempotencyFilter filter = new IdempotencyFilter(cache, List.of("/mapping/users"), 5_000, 65_536);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDuplicateWaitsAndReceivesReplay() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (request, response) -> {
+            invocations.incrementAndGet();
+            await(release);
+            created((HttpServletResponse) response);
+        };
+
+        Future<MockHttpServletResponse> first = executor.submit(() -> send(chain));
+        awaitCount("miss", 1);
+        MockHttpServletResponse duplicate = sendWhenWaiting(chain, release);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(duplicate.getStatus()).isEqualTo(201);
+        assertThat(duplicate.getContentAsString()).isEqualTo("created");
+        assertThat(duplicate.getHeader("Location")).isEqualTo("/mapping/users/1");
+        assertThat(duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(invocations).hasValue(1);
+        assertThat(cache.stats()).containsEntry("wait", 1L).containsEntry("miss", 1L);
+    }
+
+    @Test
+    void waiterTakesOverWhenOwnerReturns5xx() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (request, response) -> {
+            if (invocations.incrementAndGet() == 1) {
+                await(release);
+                ((HttpServletResponse) response).setStatus(503);
+                response.getWriter().write("unavailable");
+                return;
+            }
+            created((HttpServletResponse) response);
+        };
+
+        Future<MockHttpServletResponse> first = executor.submit(() -> send(chain));
+        awaitCount("miss", 1);
+        MockHttpServletResponse duplicate = sendWhenWaiting(chain, release);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(503);
+        assertThat(duplicate.getStatus()).isEqualTo(201);
+        assertThat(duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(invocations).hasValue(2);
+        assertThat(send(chain).getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true"); // 두 번째 응답은 저장됨
+    }
+
+    @Test
+    void waiterTakesOverWhenOwnerFails() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (request, response) -> {
+            if (invocations.incrementAndGet() == 1) {
+                await(release);
+                throw new ServletException("handler failed");
+            }
+            created((HttpServletResponse) response);
+        };
+
+        Future<MockHttpServletResponse> first = executor.submit(() -> send(chain));
+        awaitCount("miss", 1);
+        MockHttpServletResponse duplicate = sendWhenWaiting(chain, release);
+
+        assertThat(first).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(duplicate.getStatus()).isEqualTo(201);
+        assertThat(duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void sendErrorResponseIsNotCached() throws Exception {
+        FilterChain chain = (request, response) -> {
+            invocations.incrementAndGet();
+            ((HttpServletResponse) response).sendError(400, "bad request");
+        };
+
+        assertThat(send(chain).getStatus()).isEqualTo(400);
+        MockHttpServletResponse retry = send(chain);
+
+        assertThat(retry.getStatus()).isEqualTo(400);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void emptyBody4xxIsNotCached() throws Exception {
+        FilterChain chain = (request, response) -> {
+            invocations.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(409);
+        };
+
+        send(chain);
+        MockHttpServletResponse retry = send(chain);
+
+        assertThat(retry.getStatus()).isEqualTo(409);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(invocations).hasValue(2);
+        assertThat(cache.stats()).containsEntry("size", 0L).containsEntry("miss", 2L);
+    }
+
+    // 중복 요청을 보내고, 그 요청이 기다리기 시작하면 owner 를 풀어준다
+    private MockHttpServletResponse sendWhenWaiting(FilterChain chain, CountDownLatch release) throws Exception {
+        Thread releaser = new Thread(() -> {
+            awaitCount("wait", 1);
+            release.countDown();
+        });
+        releaser.start();
+        MockHttpServletResponse response = send(chain);
+        releaser.join();
+        return response;
+    }
+
+    private MockHttpServletResponse send(FilterChain chain) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mapping/users");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void awaitCount(String counter, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().get(counter) < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(counter + " did not reach " + expected + ": " + cache.stats());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new AssertionError("not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void created(HttpServletResponse response) throws IOException {
+        response.setStatus(201);
+        response.setHeader("Location", "/mapping/users/1");
+        response.setContentType("text/plain");
+        response.getOutputStream().write("created".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,151 @@
+package hello.springmvc.basic.journal;
+
+import hello.springmvc.basic.HelloData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * regionSize 를 작게 잡아 region 경계, 잘린 레코드, crc 불일치를 재현한다.
+ * "user-N" 레코드는 header 8 + payload 14 = 22 byte 이므로 64 byte region 에 2개만 들어간다.
+ */
+class HelloDataJournalTest {
+
+    private static final int REGION_SIZE = 64;
+    private static final int RECORD_SIZE = 22;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayRecordsAcrossRegionBoundary() throws IOException {
+        Path file = dir.resolve("hello-data.journal");
+        appendAll(file, 0, 10);
+
+        try (HelloDataJournal journal = open(file)) {
+            List<HelloData> replayed = new ArrayList<>();
+            assertThat(journal.replay(replayed::add)).isEqualTo(10);
+            assertThat(journal.getWritePosition()).isEqualTo(10L * RECORD_SIZE);
+            assertThat(replayed).extracting(HelloData::getUsername)
+                    .containsExactly("user-0", "user-1", "user-2", "user-3", "user-4",
+                            "user-5", "user-6", "user-7", "user-8", "user-9");
+            assertThat(replayed).extracting(HelloData::getAge)
+                    .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    void replayStopsAtCrcMismatchAndAppendContinuesFromThere() throws IOException {
+        Path file = dir.resolve("hello-data.journal");
+        appendAll(file, 0, 5);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 2L * RECORD_SIZE + 8 + 4); // user-2 의 username 첫 byte
+        }
+
+        try (HelloDataJournal journal = open(file)) {
+            assertThat(journal.replay(helloData -> { })).isEqualTo(2);
+            assertThat(journal.getWritePosition()).isEqualTo(2L * RECORD_SIZE);
+            journal.start();
+            journal.append(helloData("user-7", 7));
+        }
+
+        assertThat(usernames(file)).containsExactly("user-0", "user-1", "user-7");
+    }
+
+    @Test
+    void replayStopsAtTornRecordAndAppendContinuesFromThere() throws IOException {
+        Path file = dir.resolve("hello-data.journal");
+        appendAll(file, 0, 3);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(2L * RECORD_SIZE + 10); // user-2 가 쓰다 만 상태
+        }
+
+        try (HelloDataJournal journal = open(file)) {
+            assertThat(journal.replay(helloData -> { })).isEqualTo(2);
+            assertThat(journal.getWritePosition()).isEqualTo(2L * RECORD_SIZE);
+            journal.start();
+            journal.append(helloData("user-8", 8));
+            journal.append(helloData("user-9", 9));
+        }
+
+        assertThat(usernames(file)).containsExactly("user-0", "user-1", "user-8", "user-9");
+    }
+
+    @Test
+    void appendAfterCloseFailsFast() throws IOException {
+        HelloDataJournal journal = open(dir.resolve("hello-data.journal"));
+        journal.replay(helloData -> { });
+        journal.start();
+        journal.close();
+
+        assertThatThrownBy(() -> journal.append(helloData("user-0", 0)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void forceFailureFailsBatchAndStopsJournal() throws Exception {
+        Path file = dir.resolve("hello-data.journal");
+        HelloDataJournal journal = new HelloDataJournal(file, FsyncPolicy.ALWAYS, 10, REGION_SIZE, 16, 5_000) {
+            @Override
+            void forceRegion(MappedByteBuffer region) {
+                throw new UncheckedIOException(new IOException("fsync failed"));
+            }
+        };
+        journal.replay(helloData -> { });
+        journal.start();
+
+        CompletableFuture<Void> future = journal.appendAsync(helloData("user-0", 0));
+
+        // 기록은 됐지만 force 로 확인되지 않았으므로 성공으로 응답하지 않는다
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("fsync failed");
+        // 실패 상태 -> 이후 append 는 기다리지 않고 바로 실패한다
+        assertThatThrownBy(() -> journal.append(helloData("user-1", 1)))
+                .isInstanceOf(IllegalStateException.class);
+        journal.close();
+    }
+
+    private static HelloDataJournal open(Path file) throws IOException {
+        return new HelloDataJournal(file, FsyncPolicy.ALWAYS, 10, REGION_SIZE, 16, 5_000);
+    }
+
+    private static void appendAll(Path file, int from, int to) throws IOException {
+        try (HelloDataJournal journal = open(file)) {
+            journal.replay(helloData -> { });
+            journal.start();
+            for (int i = from; i < to; i++) {
+                journal.append(helloData("user-" + i, i));
+            }
+        }
+    }
+
+    private static List<String> usernames(Path file) throws IOException {
+        List<String> usernames = new ArrayList<>();
+        try (HelloDataJournal journal = open(file)) {
+            journal.replay(helloData -> usernames.add(helloData.getUsername()));
+        }
+        return usernames;
+    }
+
+    private static HelloData helloData(String username, int age) {
+        HelloData helloData = new HelloData();
+        helloData.setUsername(username);
+        helloData.setAge(age);
+        return helloData;
+    }
+}
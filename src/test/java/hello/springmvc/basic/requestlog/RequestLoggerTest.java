@@ -0,0 +1,166 @@
+package hello.springmvc.basic.requestlog;
+
+import hello.springmvc.basic.HelloData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RequestLogger 로 기록한 파일을 RequestLogReader 로 다시 읽어 확인한다.
+ */
+class RequestLoggerTest {
+
+    private static final String LOGGER = RequestLoggerTest.class.getName();
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void writeAndReadAllArgumentTypes() throws IOException {
+        Path file = dir.resolve("request-log.bin");
+        HelloData helloData = new HelloData();
+        helloData.setUsername("kim");
+        helloData.setAge(20);
+
+        try (RequestLogger requestLog = new RequestLogger(properties(file))) {
+            bindRequest("/request-param-v1");
+            requestLog.info(getClass(), "null={}, int={}, long={}, boolean={}, double={}, string={}, object={}",
+                    null, 1, -2L, true, 1.5, "hello", helloData);
+            requestLog.info(getClass(), "short={}, byte={}, float={}, negative={}", (short) 3, (byte) -4, 0.25f, Integer.MIN_VALUE);
+        }
+
+        List<String> lines = read(file);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("---- session ");
+        assertThat(lines.get(1)).endsWith(" " + LOGGER + " /request-param-v1"
+                + " : null=null, int=1, long=-2, boolean=true, double=1.5, string=hello, object=HelloData(username=kim, age=20)");
+        assertThat(lines.get(2)).endsWith(" : short=3, byte=-4, float=0.25, negative=" + Integer.MIN_VALUE);
+    }
+
+    @Test
+    void routeIsMatchedPatternOrDash() throws IOException {
+        Path file = dir.resolve("request-log.bin");
+
+        try (RequestLogger requestLog = new RequestLogger(properties(file))) {
+            bindRequest("/mapping/{userId}");
+            requestLog.info(getClass(), "in request");
+            RequestContextHolder.resetRequestAttributes();
+            requestLog.info(getClass(), "no request");
+        }
+
+        List<String> lines = read(file);
+        assertThat(lines.get(1)).endsWith(" " + LOGGER + " /mapping/{userId} : in request");
+        assertThat(lines.get(2)).endsWith(" " + LOGGER + " - : no request");
+    }
+
+    @Test
+    void dictionaryStartsOverInEachSession() throws IOException {
+        Path file = dir.resolve("request-log.bin");
+
+        try (RequestLogger requestLog = new RequestLogger(properties(file))) {
+            bindRequest("/request-param-v1");
+            requestLog.info(getClass(), "first={}", 1);
+        }
+        try (RequestLogger requestLog = new RequestLogger(properties(file))) {
+            bindRequest("/request-param-v2"); // 새 session 에서는 같은 id 가 다른 문자열을 가리킨다
+            requestLog.info(getClass(), "second={}", 2);
+        }
+
+        List<String> lines = read(file);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("---- session ");
+        assertThat(lines.get(1)).endsWith(" /request-param-v1 : first=1");
+        assertThat(lines.get(2)).startsWith("---- session ");
+        assertThat(lines.get(3)).endsWith(" /request-param-v2 : second=2");
+    }
+
+    @Test
+    void truncatedTailIsReportedAndDroppedBeforeNextSession() throws IOException {
+        Path file = dir.resolve("request-log.bin");
+
+        try (RequestLogger requestLog = new RequestLogger(properties(file))) {
+            requestLog.info(getClass(), "first={}", 1);
+            requestLog.info(getClass(), "second={}", "cut here");
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3); // 마지막 EVENT 를 쓰다가 죽은 상태
+        }
+
+        assertThat(read(file)).hasSize(3)
+                .endsWith("---- truncated record at end of file")
+                .anyMatch(line -> line.endsWith(" : first=1"));
+
+        try (RequestLogger requestLog = new RequestLogger(properties(file))) {
+            requestLog.info(getClass(), "third={}", 3);
+        }
+
+        List<String> lines = read(file);
+        assertThat(lines).hasSize(4).noneMatch(line -> line.startsWith("---- truncated") || line.startsWith("---- skipped"));
+        assertThat(lines.get(1)).endsWith(" : first=1");
+        assertThat(lines.get(2)).startsWith("---- session ");
+        assertThat(lines.get(3)).endsWith(" : third=3");
+    }
+
+    @Test
+    void rotatesWhenMaxFileSizeIsReached() throws IOException {
+        Path file = dir.resolve("request-log.bin");
+        RequestLogProperties properties = properties(file);
+        properties.setMaxFileSize(DataSize.ofBytes(1));
+
+        try (RequestLogger requestLog = new RequestLogger(properties)) {
+            requestLog.info(getClass(), "first={}", 1);
+        }
+        try (RequestLogger requestLog = new RequestLogger(properties)) {
+            requestLog.info(getClass(), "second={}", 2);
+        }
+
+        Path rotated = dir.resolve("request-log.bin.1");
+        assertThat(read(rotated)).anyMatch(line -> line.endsWith(" : second=2"));
+        List<String> current = read(file); // rotate 직후 새로 연 파일에는 session 만 있다
+        assertThat(current).hasSize(1);
+        assertThat(current.get(0)).startsWith("---- session ");
+    }
+
+    private static RequestLogProperties properties(Path file) {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setFile(file);
+        return properties;
+    }
+
+    private static void bindRequest(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            RequestLogReader.read(file, out);
+        }
+        return buffer.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
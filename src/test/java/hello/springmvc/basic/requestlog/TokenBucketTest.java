@@ -0,0 +1,64 @@
+package hello.springmvc.basic.requestlog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullAndStopsAtBurst() {
+        TokenBucket bucket = new TokenBucket(0, 3); // 다시 채워지지 않는다
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void refillsAtRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 1); // 1ms 에 1개
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        Thread.sleep(20);
+        assertThat(bucket.tryAcquire()).isTrue(); // 20ms 가 지나도 burst(1) 개만 쌓인다
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedBurst() throws Exception {
+        int burst = 1000;
+        TokenBucket bucket = new TokenBucket(0, burst);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> {
+                    int acquired = 0;
+                    for (int j = 0; j < burst; j++) {
+                        if (bucket.tryAcquire()) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                });
+            }
+            int total = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                total += future.get();
+            }
+            assertThat(total).isEqualTo(burst);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package hello.springmvc.benchmark;
+
+import hello.springmvc.basic.header.CachingAcceptHeaderLocaleResolver;
+import hello.springmvc.basic.header.CachingHeaderContentNegotiationStrategy;
+import hello.springmvc.basic.header.ParsedHeaderCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Accept / Accept-Language 파싱 : 매번 파싱 vs ParsedHeaderCache
+ *
+ * 실행 : HeaderParsingBenchmark [iterations=2000000]
+ * 요청당 ns/op 와 할당량(bytes/op)을 출력한다.
+ */
+public class HeaderParsingBenchmark {
+
+    private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8";
+    private static final String ACCEPT_LANGUAGE = "ko,en;q=0.9,en-US;q=0.8";
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Microbenchmark.iterations(args, 2_000_000);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mapping-produces");
+        request.addHeader(HttpHeaders.ACCEPT, ACCEPT);
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+
+        ContentNegotiationStrategy parsing = new HeaderContentNegotiationStrategy();
+        ContentNegotiationStrategy caching = new CachingHeaderContentNegotiationStrategy(
+                new ParsedHeaderCache<>(64, CachingHeaderContentNegotiationStrategy::parseAccept));
+        ParsedHeaderCache<Optional<Locale>> localeCache =
+                new ParsedHeaderCache<>(64, CachingAcceptHeaderLocaleResolver::parseAcceptLanguage);
+
+        Microbenchmark.rounds(() -> {
+            Microbenchmark.measure("accept          parse", iterations, () -> parsing.resolveMediaTypes(webRequest).size());
+            Microbenchmark.measure("accept          cache", iterations, () -> caching.resolveMediaTypes(webRequest).size());
+            Microbenchmark.measure("accept-language parse", iterations,
+                    () -> CachingAcceptHeaderLocaleResolver.parseAcceptLanguage(ACCEPT_LANGUAGE).hashCode());
+            Microbenchmark.measure("accept-language cache", iterations, () -> localeCache.get(ACCEPT_LANGUAGE).hashCode());
+        });
+        System.out.println("accept-language cache stats " + localeCache.stats());
+    }
+}
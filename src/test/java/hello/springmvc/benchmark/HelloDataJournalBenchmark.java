@@ -0,0 +1,92 @@
+package hello.springmvc.benchmark;
+
+import hello.springmvc.basic.HelloData;
+import hello.springmvc.basic.journal.FsyncPolicy;
+import hello.springmvc.basic.journal.HelloDataJournal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 저널 append 처리량 / replay 속도 측정
+ *
+ * 실행 : HelloDataJournalBenchmark [targetGb=2] [threads=16] [fsync=INTERVAL]
+ * targetGb 만큼 기록될 때까지 threads 개의 스레드가 append 한 뒤, 같은 파일을 다시 열어 replay 한다.
+ */
+public class HelloDataJournalBenchmark {
+
+    private static final int REGION_SIZE = 64 * 1024 * 1024;
+    private static final int IN_FLIGHT_PER_THREAD = 256;
+
+    public static void main(String[] args) throws Exception {
+        double targetGb = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        FsyncPolicy fsync = args.length > 2 ? FsyncPolicy.valueOf(args[2]) : FsyncPolicy.INTERVAL;
+        long targetBytes = (long) (targetGb * 1024 * 1024 * 1024);
+
+        Path file = Files.createTempFile("hello-data", ".journal");
+        try {
+            long appended = append(file, targetBytes, threads, fsync);
+            replay(file, appended);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long append(Path file, long targetBytes, int threads, FsyncPolicy fsync) throws Exception {
+        HelloDataJournal journal = new HelloDataJournal(file, fsync, 10, REGION_SIZE, 4096, 60_000);
+        journal.replay(helloData -> { });
+        journal.start();
+
+        AtomicLong records = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int threadId = t;
+            Thread worker = new Thread(() -> {
+                HelloData helloData = new HelloData();
+                helloData.setUsername("user-" + threadId);
+                List<CompletableFuture<Void>> inFlight = new ArrayList<>(IN_FLIGHT_PER_THREAD);
+                while (journal.getWritePosition() < targetBytes) {
+                    helloData.setAge((int) records.incrementAndGet());
+                    inFlight.add(journal.appendAsync(helloData));
+                    if (inFlight.size() == IN_FLIGHT_PER_THREAD) {
+                        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+                        inFlight.clear();
+                    }
+                }
+                CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long bytes = journal.getWritePosition();
+        journal.close();
+
+        System.out.printf("append  fsync=%s threads=%d records=%d bytes=%d elapsed=%dms -> %.0f records/s, %.1f MB/s%n",
+                fsync, threads, records.get(), bytes, elapsedNanos / 1_000_000,
+                records.get() / (elapsedNanos / 1e9), bytes / 1024.0 / 1024 / (elapsedNanos / 1e9));
+        return records.get();
+    }
+
+    private static void replay(Path file, long expected) throws Exception {
+        AtomicLong ageSum = new AtomicLong();
+        long start = System.nanoTime();
+        long count;
+        try (HelloDataJournal journal = new HelloDataJournal(file, FsyncPolicy.NEVER, 10, REGION_SIZE, 4096, 60_000)) {
+            count = journal.replay(helloData -> ageSum.addAndGet(helloData.getAge()));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        System.out.printf("replay  records=%d (expected %d) elapsed=%dms -> %.0f records/s, %.1f MB/s%n",
+                count, expected, elapsedNanos / 1_000_000, count / (elapsedNanos / 1e9),
+                Files.size(file) / 1024.0 / 1024 / (elapsedNanos / 1e9));
+    }
+}
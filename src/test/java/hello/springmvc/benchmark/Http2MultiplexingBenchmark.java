@@ -0,0 +1,88 @@
+package hello.springmvc.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/1.1 keep-alive vs h2c multiplexing 비교 ("ok" 만 반환하는 작은 응답 엔드포인트)
+ *
+ * 서버 실행 : --spring.profiles.active=h2c
+ * 실행      : Http2MultiplexingBenchmark [baseUrl=http://localhost:8080] [requests=50000] [concurrency=64]
+ *
+ * - HTTP/1.1 : in-flight 요청 수(concurrency) 만큼 connection 이 열린다. (connection 당 요청 1개씩)
+ * - h2c      : 하나의 connection 에서 concurrency 개의 stream 을 동시에 보낸다.
+ * connection 당 requests/s 와 p50/p99/p99.9 지연을 출력한다.
+ */
+public class Http2MultiplexingBenchmark {
+
+    private static final List<String> PATHS = List.of("/hello-basic", "/mapping-get-v2");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        for (String path : PATHS) {
+            URI uri = URI.create(baseUrl + path);
+            run("HTTP/1.1", HttpClient.Version.HTTP_1_1, uri, requests, concurrency, concurrency);
+            run("h2c     ", HttpClient.Version.HTTP_2, uri, requests, concurrency, 1);
+        }
+    }
+
+    private static void run(String name, HttpClient.Version version, URI uri,
+                            int requests, int concurrency, int connections) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        // h2c upgrade 와 connection 생성, 서버 JIT 를 측정에서 제외
+        for (int i = 0; i < Math.max(1_000, concurrency); i++) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+        HttpResponse<Void> probe = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (probe.version() != version) {
+            System.out.printf("%s %s : server answered with %s (is server.http2.enabled=true?)%n", name, uri.getPath(), probe.version());
+        }
+
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s %-16s connections=%-3d %8.0f req/s %8.0f req/s/conn  p50=%.2fms p99=%.2fms p99.9=%.2fms errors=%d%n",
+                name, uri.getPath(), connections, requests / seconds, requests / seconds / connections,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
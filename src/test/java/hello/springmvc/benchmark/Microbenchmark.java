@@ -0,0 +1,55 @@
+package hello.springmvc.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 단일 스레드 마이크로 벤치마크 공통 부분
+ *
+ * rounds 로 전체 측정을 여러 번 반복하고(앞의 라운드는 JIT warm-up), measure 는 작업을 iterations 번 실행해서
+ * ns/op 와 현재 스레드의 할당량(bytes/op)을 출력한다. 작업의 반환값은 합산해서 같이 출력한다. (JIT 가 호출을 없애지 못하도록)
+ */
+final class Microbenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private Microbenchmark() {
+    }
+
+    static int iterations(String[] args, int defaultIterations) {
+        return args.length > 0 ? Integer.parseInt(args[0]) : defaultIterations;
+    }
+
+    static void rounds(Round round) throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+    }
+
+    static void measure(String name, int iterations, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long check = 0;
+
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            check += operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%s %8.1f ns/op %8.0f bytes/op (check=%d)%n",
+                name, (double) elapsed / iterations, (double) allocated / iterations, check);
+    }
+
+    @FunctionalInterface
+    interface Round {
+        void run() throws Exception;
+    }
+
+    // long 을 돌려주므로 결과를 박싱하지 않는다 (bytes/op 에 섞이지 않게)
+    @FunctionalInterface
+    interface Operation {
+        long run() throws Exception;
+    }
+}
@@ -0,0 +1,55 @@
+package hello.springmvc.benchmark;
+
+import hello.springmvc.basic.HelloData;
+import hello.springmvc.basic.binding.CompiledModelAttributeMethodProcessor;
+import hello.springmvc.basic.request.RequestParamController;
+import org.springframework.core.MethodParameter;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ServletModelAttributeMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+
+import java.util.List;
+
+/**
+ * @ModelAttribute HelloData 바인딩 : 기본 ServletModelAttributeMethodProcessor vs CompiledModelAttributeMethodProcessor
+ *
+ * 실행 : ModelAttributeBindingBenchmark [iterations=2000000]
+ * RequestParamController.modelAttributeV1 의 파라미터로 username=hello&age=20 을 바인딩하고 ns/op, bytes/op 를 출력한다.
+ */
+public class ModelAttributeBindingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Microbenchmark.iterations(args, 2_000_000);
+
+        MethodParameter parameter = new MethodParameter(
+                RequestParamController.class.getMethod("modelAttributeV1", HelloData.class), 0);
+        ConfigurableWebBindingInitializer initializer = new ConfigurableWebBindingInitializer();
+        initializer.setConversionService(new DefaultFormattingConversionService());
+        WebDataBinderFactory binderFactory = new ServletRequestDataBinderFactory(null, initializer);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/model-attribute-v1");
+        request.addParameter("username", "hello");
+        request.addParameter("age", "20");
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+
+        HandlerMethodArgumentResolver defaultProcessor = new ServletModelAttributeMethodProcessor(false);
+        HandlerMethodArgumentResolver compiledProcessor = new CompiledModelAttributeMethodProcessor(List.of(HelloData.class));
+
+        Microbenchmark.rounds(() -> {
+            Microbenchmark.measure("default ", iterations, () -> bind(defaultProcessor, parameter, webRequest, binderFactory));
+            Microbenchmark.measure("compiled", iterations, () -> bind(compiledProcessor, parameter, webRequest, binderFactory));
+        });
+    }
+
+    private static int bind(HandlerMethodArgumentResolver resolver, MethodParameter parameter,
+                            ServletWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        HelloData helloData = (HelloData) resolver.resolveArgument(parameter, new ModelAndViewContainer(), webRequest, binderFactory);
+        return helloData.getAge();
+    }
+}